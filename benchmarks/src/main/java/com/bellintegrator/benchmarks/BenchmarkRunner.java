@@ -0,0 +1,147 @@
+package com.bellintegrator.benchmarks;
+
+import org.aspectj.weaver.loadtime.Agent;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.json.Json;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Класс BenchmarkRunner запускает замеры JMH с агентом aspectjweaver в форках и профилировщиком GC
+ * (скорость выделения памяти gc.alloc.rate.norm), сохраняет результаты в target/jmh-result.json
+ * и, если задано свойство baseline, сравнивает их с результатами предыдущего запуска.
+ * Параметры командной строки JMH передаются как есть.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Файл результатов текущего запуска.
+     */
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Запускает замеры.
+     *
+     * @param args параметры командной строки JMH
+     * @throws RunnerException при ошибке выполнения замеров
+     * @throws CommandLineOptionException при неверных параметрах командной строки
+     * @throws IOException при ошибке чтения файла baseline
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        Files.createDirectories(Paths.get(RESULT_FILE).getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .jvmArgsAppend("-javaagent:" + agentJar())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT_FILE)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        String baseline = System.getProperty("baseline");
+        if (baseline != null) {
+            compare(results, readBaseline(Paths.get(baseline)));
+        }
+    }
+
+    /**
+     * Определяет jar с агентом aspectjweaver: собранный benchmarks.jar или aspectjweaver из локального репозитория.
+     *
+     * @return путь к jar агента
+     */
+    private static String agentJar() {
+        try {
+            return Paths.get(Agent.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Не удалось определить jar агента aspectjweaver", e);
+        }
+    }
+
+    /**
+     * Читает оценки замеров предыдущего запуска из файла результатов JMH в формате JSON.
+     *
+     * @param file файл результатов
+     * @return оценки по ключу "замер параметры"
+     * @throws IOException при ошибке чтения файла
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> readBaseline(Path file) throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Map<String, Object>> runs = new Json().toType(reader, Json.LIST_OF_MAPS_TYPE);
+            for (Map<String, Object> run : runs) {
+                Map<String, Object> params = (Map<String, Object>) run.get("params");
+                Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+                scores.put(key((String) run.get("benchmark"), params == null ? new TreeMap<>() : new TreeMap<>(params)),
+                        ((Number) metric.get("score")).doubleValue());
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Выводит изменение оценок относительно baseline.
+     *
+     * @param results результаты текущего запуска
+     * @param baseline оценки предыдущего запуска
+     */
+    private static void compare(Collection<RunResult> results, Map<String, Double> baseline) {
+        System.out.println();
+        System.out.println("Сравнение с baseline (throughput, больше - лучше):");
+        for (RunResult result : results) {
+            Map<String, Object> params = new TreeMap<>();
+            result.getParams().getParamsKeys().forEach(name -> params.put(name, result.getParams().getParam(name)));
+            String key = key(result.getParams().getBenchmark(), params);
+            Result<?> primary = result.getPrimaryResult();
+            Double previous = baseline.get(key);
+            if (previous == null) {
+                System.out.printf(Locale.ROOT, "  %s: %.1f %s (нет в baseline)%n", key, primary.getScore(),
+                        primary.getScoreUnit());
+            } else {
+                System.out.printf(Locale.ROOT, "  %s: %.1f -> %.1f %s (%+.1f%%)%n", key, previous,
+                        primary.getScore(), primary.getScoreUnit(), (primary.getScore() / previous - 1) * 100);
+            }
+        }
+    }
+
+    /**
+     * Формирует ключ замера.
+     *
+     * @param benchmark полное имя метода замера
+     * @param params параметры замера
+     * @return ключ замера
+     */
+    private static String key(String benchmark, Map<String, Object> params) {
+        return params.isEmpty() ? benchmark : benchmark + " " + params;
+    }
+}
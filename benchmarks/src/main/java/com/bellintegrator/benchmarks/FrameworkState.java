@@ -0,0 +1,110 @@
+package com.bellintegrator.benchmarks;
+
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.aspects.AttachmentsAspects;
+import io.qameta.allure.aspects.StepsAspects;
+import io.qameta.allure.model.TestResult;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Класс FrameworkState готовит окружение замеров: заглушку WebDriver, привязанную к потоку Selenide,
+ * и AllureLifecycle с записью результатов в память и запущенным тестом, к которому добавляются шаги и вложения.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@State(Scope.Thread)
+public class FrameworkState {
+
+    /**
+     * Размер имитируемого скриншота: порядок размера PNG страницы каталога.
+     */
+    private static final int SCREENSHOT_SIZE = 300 * 1024;
+
+    /**
+     * Размер имитируемого исходного кода страницы.
+     */
+    private static final int PAGE_SOURCE_SIZE = 500 * 1024;
+
+    /**
+     * Запись результатов Allure в память.
+     */
+    InMemoryResultsWriter writer;
+
+    /**
+     * Жизненный цикл Allure замера.
+     */
+    AllureLifecycle lifecycle;
+
+    /**
+     * Заглушка WebDriver.
+     */
+    StubWebDriver driver;
+
+    /**
+     * Идентификатор текущего теста Allure.
+     */
+    private String testUuid;
+
+    /**
+     * Создает заглушку WebDriver и жизненный цикл Allure и подключает их к Selenide и аспектам Allure.
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        byte[] screenshot = new byte[SCREENSHOT_SIZE];
+        Arrays.fill(screenshot, (byte) 7);
+        char[] pageSource = new char[PAGE_SOURCE_SIZE];
+        Arrays.fill(pageSource, 'a');
+        driver = new StubWebDriver(screenshot, new String(pageSource));
+        WebDriverRunner.setWebDriver(driver);
+
+        writer = new InMemoryResultsWriter();
+        lifecycle = new AllureLifecycle(writer);
+        Allure.setLifecycle(lifecycle);
+        StepsAspects.setLifecycle(lifecycle);
+        AttachmentsAspects.setLifecycle(lifecycle);
+    }
+
+    /**
+     * Запускает новый тест Allure на каждую итерацию замера.
+     */
+    @Setup(Level.Iteration)
+    public void startTest() {
+        testUuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(testUuid).setName("benchmark"));
+        lifecycle.startTestCase(testUuid);
+    }
+
+    /**
+     * Удаляет накопленные шаги текущего теста, чтобы объем модели Allure не рос в течение итерации.
+     */
+    void clearSteps() {
+        lifecycle.updateTestCase(testResult -> testResult.getSteps().clear());
+    }
+
+    /**
+     * Завершает тест Allure итерации.
+     */
+    @TearDown(Level.Iteration)
+    public void stopTest() {
+        lifecycle.stopTestCase(testUuid);
+        lifecycle.writeTestCase(testUuid);
+    }
+
+    /**
+     * Отвязывает заглушку WebDriver от Selenide.
+     */
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        WebDriverRunner.webdriverContainer.resetWebDriver();
+    }
+}
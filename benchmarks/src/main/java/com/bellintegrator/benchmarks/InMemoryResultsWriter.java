@@ -0,0 +1,88 @@
+package com.bellintegrator.benchmarks;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс InMemoryResultsWriter заменяет запись результатов Allure на диск подсчетом:
+ * вложения вычитываются полностью, чтобы стоимость их формирования оставалась в замере, но никуда не сохраняются.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class InMemoryResultsWriter implements AllureResultsWriter {
+
+    /**
+     * Количество записанных результатов тестов и контейнеров.
+     */
+    private final AtomicLong results = new AtomicLong();
+
+    /**
+     * Количество записанных вложений.
+     */
+    private final AtomicLong attachments = new AtomicLong();
+
+    /**
+     * Суммарный размер записанных вложений.
+     */
+    private final AtomicLong attachmentBytes = new AtomicLong();
+
+    @Override
+    public void write(TestResult testResult) {
+        results.incrementAndGet();
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        results.incrementAndGet();
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        byte[] buffer = new byte[8192];
+        long size = 0;
+        try (InputStream input = attachment) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                size += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        attachments.incrementAndGet();
+        attachmentBytes.addAndGet(size);
+    }
+
+    /**
+     * Возвращает количество записанных результатов тестов и контейнеров.
+     *
+     * @return количество результатов
+     */
+    public long getResults() {
+        return results.get();
+    }
+
+    /**
+     * Возвращает количество записанных вложений.
+     *
+     * @return количество вложений
+     */
+    public long getAttachments() {
+        return attachments.get();
+    }
+
+    /**
+     * Возвращает суммарный размер записанных вложений.
+     *
+     * @return размер в байтах
+     */
+    public long getAttachmentBytes() {
+        return attachmentBytes.get();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bellintegrator.benchmarks;
+
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.CustomAllureSelenide;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс ListenerBenchmark замеряет стоимость обработки события Selenide слушателем CustomAllureSelenide:
+ * открытие шага в beforeEvent, снимок страницы и вложения в afterEvent, обновление статуса и закрытие шага
+ * (ветка stepsShouldBeLogged) в обоих режимах сохранения снимков.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ListenerBenchmark {
+
+    /**
+     * Количество событий за один вызов замера; после пачки шаги теста очищаются.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Режим сохранения снимков страницы.
+     */
+    @Param({"ON_FAILURE", "ALWAYS"})
+    public String captureMode;
+
+    /**
+     * Слушатель Selenide с Allure интеграцией.
+     */
+    private CustomAllureSelenide listener;
+
+    /**
+     * Создает слушатель в заданном режиме и регистрирует его в Selenide.
+     *
+     * @param framework окружение замера
+     */
+    @Setup(Level.Trial)
+    public void setUp(FrameworkState framework) {
+        Properties.testsProperties.setProperty("attachments.capture.mode", captureMode);
+        listener = new CustomAllureSelenide(framework.lifecycle);
+        SelenideLogger.addListener("AllureSelenide", listener);
+    }
+
+    /**
+     * Снимает слушатель и дожидается записи вложений.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SelenideLogger.removeListener("AllureSelenide");
+        listener.finishTest(false);
+    }
+
+    /**
+     * Успешная команда Selenide внутри теста Allure.
+     *
+     * @param framework окружение замера
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void passedCommand(FrameworkState framework) {
+        for (int i = 0; i < BATCH; i++) {
+            SelenideLog log = SelenideLogger.beginStep("$(\"#button\")", "click()");
+            SelenideLogger.commitStep(log, LogEvent.EventStatus.PASS);
+        }
+        framework.clearSteps();
+    }
+}
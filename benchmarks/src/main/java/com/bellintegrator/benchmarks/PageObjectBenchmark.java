@@ -0,0 +1,112 @@
+package com.bellintegrator.benchmarks;
+
+import com.bellintegrator.pages.BasePage;
+import com.bellintegrator.pages.PageFactory;
+import com.bellintegrator.pages.citilink.CitilinkCatalogPage;
+import com.bellintegrator.pages.citilink.CitilinkStartPage;
+import com.codeborne.selenide.Selenide;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс PageObjectBenchmark замеряет создание page object: BasePage.open с навигацией заглушки WebDriver,
+ * создание страницы без навигации и цепочку переходов длинного сценария через Selenide.page и через PageFactory.
+ * Время и объем выделяемой памяти на переход сравниваются по результатам профилировщика GC.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageObjectBenchmark {
+
+    /**
+     * Количество вызовов за один вызов замера; после пачки шаги теста очищаются.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Страницы, через которые по очереди проходит длинный сценарий.
+     */
+    private static final List<Class<? extends BasePage>> FLOW =
+            Arrays.asList(CitilinkStartPage.class, CitilinkCatalogPage.class);
+
+    /**
+     * Открытие стартовой страницы через BasePage.open.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void openStartPage(FrameworkState framework, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(BasePage.open("https://citilink.ru/", CitilinkStartPage.class));
+        }
+        framework.clearSteps();
+    }
+
+    /**
+     * Создание страницы каталога без навигации.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    public void createCatalogPage(FrameworkState framework, Blackhole blackhole) {
+        blackhole.consume(Selenide.page(CitilinkCatalogPage.class));
+    }
+
+    /**
+     * Создание страницы каталога без навигации через PageFactory.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    public void createCatalogPageWithFactory(FrameworkState framework, Blackhole blackhole) {
+        blackhole.consume(PageFactory.create(CitilinkCatalogPage.class));
+    }
+
+    /**
+     * Переходы длинного сценария между стартовой страницей и каталогом через Selenide.page.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void transitionsWithSelenidePage(FrameworkState framework, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(Selenide.page(FLOW.get(i % FLOW.size())));
+        }
+    }
+
+    /**
+     * Переходы длинного сценария между стартовой страницей и каталогом через PageFactory.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void transitionsWithPageFactory(FrameworkState framework, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(PageFactory.create(FLOW.get(i % FLOW.size())));
+        }
+    }
+}
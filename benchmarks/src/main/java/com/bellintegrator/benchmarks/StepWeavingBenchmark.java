@@ -0,0 +1,91 @@
+package com.bellintegrator.benchmarks;
+
+import io.qameta.allure.Step;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс StepWeavingBenchmark замеряет накладные расходы вплетения аспектов в методы с аннотацией Step:
+ * шаг Allure (StepsAspects) и замер длительности (StepTimingAspect) в сравнении с тем же методом без аннотации.
+ * Аспекты вплетаются агентом aspectjweaver, который BenchmarkRunner подключает к форкам JMH.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StepWeavingBenchmark {
+
+    /**
+     * Количество вызовов за один вызов замера; после пачки шаги теста очищаются.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Вызов метода с аннотацией Step.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void annotatedStep(FrameworkState framework, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(step("Смартфоны", i));
+        }
+        framework.clearSteps();
+    }
+
+    /**
+     * Вызов такого же метода без аннотации.
+     *
+     * @param framework окружение замера
+     * @param blackhole приемник результатов
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void plainMethod(FrameworkState framework, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(plain("Смартфоны", i));
+        }
+        framework.clearSteps();
+    }
+
+    /**
+     * Шаг, имитирующий метод page object с параметрами в имени шага.
+     *
+     * @param text текст
+     * @param index номер
+     * @return длина текста с номером
+     */
+    @Step("Выбор элемента {text} номер {index}")
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    public static int step(String text, int index) {
+        return text.length() + index;
+    }
+
+    /**
+     * Тот же метод без аннотации Step.
+     *
+     * @param text текст
+     * @param index номер
+     * @return длина текста с номером
+     */
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    public static int plain(String text, int index) {
+        return text.length() + index;
+    }
+}
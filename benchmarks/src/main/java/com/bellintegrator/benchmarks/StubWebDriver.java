@@ -0,0 +1,187 @@
+package com.bellintegrator.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Класс StubWebDriver имитирует браузер без сети и процессов: отдает заранее заданные скриншот
+ * и исходный код страницы, а навигацию только запоминает. Позволяет замерять собственный код фреймворка
+ * без шума от браузера.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, HasCapabilities {
+
+    /**
+     * Дескриптор единственного окна.
+     */
+    private static final String WINDOW_HANDLE = "stub-window";
+
+    /**
+     * Скриншот, возвращаемый при каждом запросе.
+     */
+    private final byte[] screenshot;
+
+    /**
+     * Исходный код страницы, возвращаемый при каждом запросе.
+     */
+    private final String pageSource;
+
+    /**
+     * Текущий адрес.
+     */
+    private volatile String currentUrl = "about:blank";
+
+    /**
+     * Конструктор заглушки.
+     *
+     * @param screenshot скриншот страницы
+     * @param pageSource исходный код страницы
+     */
+    public StubWebDriver(byte[] screenshot, String pageSource) {
+        this.screenshot = screenshot;
+        this.pageSource = pageSource;
+    }
+
+    @Override
+    public void get(String url) {
+        this.currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "stub";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new org.openqa.selenium.NoSuchElementException("Заглушка не содержит элементов: " + by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return pageSource;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return stub(TargetLocator.class);
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new Navigation() {
+            @Override
+            public void back() {
+            }
+
+            @Override
+            public void forward() {
+            }
+
+            @Override
+            public void to(String url) {
+                get(url);
+            }
+
+            @Override
+            public void to(URL url) {
+                get(url.toString());
+            }
+
+            @Override
+            public void refresh() {
+            }
+        };
+    }
+
+    @Override
+    public Options manage() {
+        return stub(Options.class);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(screenshot);
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return new ImmutableCapabilities("browserName", "chrome");
+    }
+
+    /**
+     * Создает заглушку интерфейса, методы которой ничего не делают и возвращают значения по умолчанию.
+     *
+     * @param type интерфейс
+     * @param <T> тип интерфейса
+     * @return заглушка интерфейса
+     */
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (method.getReturnType() == Set.class) {
+                        return Collections.emptySet();
+                    }
+                    if (method.getReturnType().isInterface() && method.getReturnType() != Object.class) {
+                        return stub(method.getReturnType());
+                    }
+                    return null;
+                }));
+    }
+}
@@ -0,0 +1,4 @@
+package com.bellintegrator.benchmarks.jmh_generated;
+public class FrameworkState_jmhType extends FrameworkState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.bellintegrator.benchmarks.jmh_generated;
+public class ListenerBenchmark_jmhType extends ListenerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.bellintegrator.benchmarks.jmh_generated;
+public class PageObjectBenchmark_jmhType extends PageObjectBenchmark_jmhType_B3 {
+}
+
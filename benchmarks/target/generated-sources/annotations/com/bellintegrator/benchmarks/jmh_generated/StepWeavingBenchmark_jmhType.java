@@ -0,0 +1,4 @@
+package com.bellintegrator.benchmarks.jmh_generated;
+public class StepWeavingBenchmark_jmhType extends StepWeavingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,165 @@
+package com.bellintegrator.conditions;
+
+import com.codeborne.selenide.CheckResult;
+import com.codeborne.selenide.CollectionCondition;
+import com.codeborne.selenide.Driver;
+import com.codeborne.selenide.ex.ElementNotFound;
+import com.codeborne.selenide.ex.MatcherError;
+import com.codeborne.selenide.impl.CollectionSource;
+import org.openqa.selenium.WebElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Класс TextsMatch проверяет тексты всех элементов коллекции одним вызовом JavaScript:
+ * тексты забираются из браузера пачкой, а условие вычисляется локально.
+ * Условие работает с ожиданием и повторными проверками Selenide, как и стандартные CollectionCondition.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class TextsMatch extends CollectionCondition {
+
+    /**
+     * Скрипт, возвращающий видимые тексты переданных элементов.
+     */
+    private static final String TEXTS_SCRIPT =
+            "return Array.prototype.map.call(arguments[0], function (e) {" +
+            "  return (e.innerText || e.textContent || '').trim();" +
+            "});";
+
+    /**
+     * Максимальное количество несовпавших элементов, выводимых в сообщении об ошибке.
+     */
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    /**
+     * Описание условия для сообщений об ошибках.
+     */
+    private final String description;
+
+    /**
+     * Условие, которому должен удовлетворять текст каждого элемента.
+     */
+    private final Predicate<String> predicate;
+
+    /**
+     * Индекс первого проверяемого элемента; элементы перед ним считаются уже проверенными.
+     */
+    private final int fromIndex;
+
+    /**
+     * Конструктор условия.
+     *
+     * @param description описание условия
+     * @param predicate условие, которому должен удовлетворять текст каждого элемента
+     * @param fromIndex индекс первого проверяемого элемента
+     */
+    public TextsMatch(String description, Predicate<String> predicate, int fromIndex) {
+        this.description = description;
+        this.predicate = predicate;
+        this.fromIndex = fromIndex;
+    }
+
+    /**
+     * Создает условие, что тексты всех элементов коллекции удовлетворяют предикату.
+     *
+     * @param description описание условия
+     * @param predicate условие для текста элемента
+     * @return условие для коллекции
+     */
+    public static CollectionCondition allTextsMatch(String description, Predicate<String> predicate) {
+        return new TextsMatch(description, predicate, 0);
+    }
+
+    /**
+     * Создает условие, что тексты всех элементов коллекции содержат указанную подстроку.
+     *
+     * @param text ожидаемая подстрока
+     * @return условие для коллекции
+     */
+    public static CollectionCondition allTextsContain(String text) {
+        return allTextsContain(text, 0);
+    }
+
+    /**
+     * Создает условие, что тексты элементов коллекции, начиная с указанного индекса, содержат подстроку.
+     * Используется для проверки только новых элементов при догрузке списка.
+     *
+     * @param text ожидаемая подстрока
+     * @param fromIndex индекс первого проверяемого элемента
+     * @return условие для коллекции
+     */
+    public static CollectionCondition allTextsContain(String text, int fromIndex) {
+        return new TextsMatch("contain text '" + text + "'", elementText -> elementText.contains(text), fromIndex);
+    }
+
+    /**
+     * Забирает тексты элементов одним вызовом JavaScript и проверяет их локально.
+     *
+     * @param driver драйвер Selenide
+     * @param elements элементы коллекции
+     * @return результат проверки; при отказе содержит описание несовпавших элементов с индексами
+     */
+    @Override
+    public CheckResult check(Driver driver, List<WebElement> elements) {
+        if (elements.size() <= fromIndex) {
+            return CheckResult.rejected("Нет элементов начиная с индекса " + fromIndex, null);
+        }
+        List<String> texts = driver.executeJavaScript(TEXTS_SCRIPT, elements.subList(fromIndex, elements.size()));
+        List<String> mismatches = new ArrayList<>();
+        int mismatchCount = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            if (!predicate.test(texts.get(i))) {
+                if (mismatchCount++ < MAX_REPORTED_MISMATCHES) {
+                    mismatches.add("[" + (fromIndex + i) + "] " + texts.get(i));
+                }
+            }
+        }
+        if (mismatchCount == 0) {
+            return CheckResult.accepted();
+        }
+        String actual = mismatchCount + " из " + texts.size() + " элементов не прошли проверку: " +
+                        String.join("; ", mismatches) + (mismatchCount > MAX_REPORTED_MISMATCHES ? "; ..." : "");
+        return CheckResult.rejected("Тексты не удовлетворяют условию", actual);
+    }
+
+    /**
+     * Выбрасывает ошибку проверки с описанием несовпавших элементов.
+     *
+     * @param collection проверяемая коллекция
+     * @param lastCheckResult результат последней проверки
+     * @param lastError последнее исключение при проверке
+     * @param timeoutMs время ожидания в миллисекундах
+     */
+    @Override
+    public void fail(CollectionSource collection, CheckResult lastCheckResult, Exception lastError, long timeoutMs) {
+        String actual = lastCheckResult.getActualValue();
+        if (actual == null) {
+            throw new ElementNotFound(collection, toString(), timeoutMs, lastError);
+        }
+        throw new MatcherError(explanation, toString(), actual, collection, lastError, timeoutMs);
+    }
+
+    /**
+     * Определяет, удовлетворяет ли отсутствие элементов условию.
+     *
+     * @return false, так как пустая коллекция не проходит проверку
+     */
+    @Override
+    public boolean missingElementSatisfiesCondition() {
+        return false;
+    }
+
+    /**
+     * Возвращает описание условия.
+     *
+     * @return описание условия
+     */
+    @Override
+    public String toString() {
+        return fromIndex == 0 ? "all texts " + description : "texts from index " + fromIndex + " " + description;
+    }
+}
@@ -1,7 +1,11 @@
 package com.bellintegrator.data;
 
 import com.bellintegrator.properties.Properties;
+import com.bellintegrator.smoke.SmokeCheck;
 import org.junit.jupiter.params.provider.Arguments;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -17,24 +21,55 @@ public class DataProvider {
 
 
     /**
-     * Предоставляет данные для пятого теста.
+     * Предоставляет данные для пятого теста: встроенный набор аргументов или, если задано свойство dataset.file,
+     * строки набора данных CSV/JSONL. Строки набора данных распределяются между исполнителями по кругу по мере
+     * выполнения тестов, без загрузки файла в память; распределение по истории длительности, для которого набор
+     * данных читается целиком, включается свойством dataset.balance.by.duration.
      *
      * @return Stream из аргументов, содержащих URL и текст для поиска на странице.
      */
     public static Stream<Arguments> dataForTestFive() {
-        return Stream.of(
-                Arguments.of(
-                        Properties.testsProperties.citilinkUrl(),
-                        "Каталог товаров",
-                        "Смартфоны и планшеты",
-                        "Смартфоны",
-                        "https://www.citilink.ru/catalog/smartfony/",
-                        "Бренд",
-                        "Показать все",
-                        "APPLE",
-                        "iPhone",
-                        "Показать ещё"
-                )
-        );
+        String dataset = Properties.testsProperties.datasetFile();
+        if (dataset != null && !dataset.trim().isEmpty()) {
+            Stream<Arguments> rows = DatasetSource.read(Paths.get(dataset.trim()))
+                    .map(SearchCase::fromRow).map(SearchCase::toArguments);
+            return Properties.testsProperties.datasetBalanceByDuration()
+                    ? Sharding.selectByDuration(rows) : Sharding.select(rows);
+        }
+        return Sharding.selectByDuration(Stream.of(SearchCase.defaultCase().toArguments()));
+    }
+
+    /**
+     * Предоставляет разделы каталога и бренды для проверки каталога с фильтром во вкладках одного браузера.
+     * Наборы распределяются между исполнителями по кругу: все они проверяются одним тестом с перекрывающимися
+     * загрузками во вкладках, поэтому истории длительности отдельных наборов нет.
+     *
+     * @return Stream из аргументов, содержащих путь раздела каталога, бренд и текст в названиях продуктов
+     */
+    public static Stream<Arguments> dataForCatalogBrands() {
+        return Sharding.select(Stream.of(
+                Arguments.of("/catalog/smartfony/", "APPLE", "iPhone"),
+                Arguments.of("/catalog/smartfony/", "SAMSUNG", "Samsung"),
+                Arguments.of("/catalog/smartfony/", "XIAOMI", "Xiaomi"),
+                Arguments.of("/catalog/planshety/", "APPLE", "iPad"),
+                Arguments.of("/catalog/planshety/", "SAMSUNG", "Samsung"),
+                Arguments.of("/catalog/noutbuki/", "APPLE", "MacBook")
+        ));
+    }
+
+    /**
+     * Предоставляет проверки без браузера по данным пятого теста: для каждого набора аргументов
+     * проверяются первые smoke.pages страниц каталога на наличие названий продуктов с искомым текстом.
+     *
+     * @return Stream проверок страниц каталога
+     */
+    public static Stream<SmokeCheck> dataForHttpSmoke() {
+        return dataForTestFive().flatMap(arguments -> {
+            Object[] values = arguments.get();
+            String catalogUrl = URI.create((String) values[0]).resolve((String) values[4]).toString();
+            String productName = (String) values[8];
+            return IntStream.rangeClosed(1, Math.max(1, Properties.testsProperties.smokePages()))
+                    .mapToObj(page -> new SmokeCheck(page == 1 ? catalogUrl : catalogUrl + "?p=" + page, productName));
+        });
     }
 }
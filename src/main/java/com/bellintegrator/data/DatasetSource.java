@@ -0,0 +1,208 @@
+package com.bellintegrator.data;
+
+import com.bellintegrator.properties.Properties;
+import org.openqa.selenium.json.Json;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Класс DatasetSource читает наборы данных из файлов CSV (первая строка - имена колонок) и JSONL
+ * (один JSON-объект в строке) построчно, не загружая файл в память: строки читаются по мере того,
+ * как JUnit запрашивает следующий набор аргументов. К строкам применяются фильтр dataset.filter
+ * и детерминированная выборка dataset.sample.rate с зерном dataset.sample.seed; строки между исполнителями
+ * распределяет DataProvider через Sharding. Выборка зависит только от содержимого строки,
+ * поэтому одинакова на всех исполнителях и не меняется при добавлении других строк.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class DatasetSource {
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private DatasetSource() {
+    }
+
+    /**
+     * Читает строки набора данных, оставляя строки, прошедшие фильтр и выборку.
+     * Поток нужно закрыть, чтобы закрыть файл; JUnit закрывает потоки аргументов сам.
+     *
+     * @param file файл CSV или JSONL
+     * @return поток строк в виде значений по именам колонок
+     */
+    public static Stream<Map<String, String>> read(Path file) {
+        Predicate<Map<String, String>> filter = filter(Properties.testsProperties.datasetFilter());
+        double rate = Properties.testsProperties.datasetSampleRate();
+        long seed = Properties.testsProperties.datasetSampleSeed();
+        return rows(file)
+                .filter(filter)
+                .filter(row -> rate >= 1 || sampleValue(row, seed) < rate);
+    }
+
+    /**
+     * Вычисляет псевдослучайное число выборки строки, зависящее только от зерна и содержимого строки.
+     *
+     * @param row значения по именам колонок
+     * @param seed зерно выборки
+     * @return число от 0 до 1
+     */
+    private static double sampleValue(Map<String, String> row, long seed) {
+        return new SplittableRandom(seed ^ new TreeMap<>(row).toString().hashCode()).nextDouble();
+    }
+
+    /**
+     * Читает все строки набора данных.
+     *
+     * @param file файл CSV или JSONL
+     * @return поток строк в виде значений по именам колонок
+     */
+    public static Stream<Map<String, String>> rows(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть набор данных " + file, e);
+        }
+        Stream<String> lines = reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return lines.filter(line -> !line.trim().isEmpty()).map(DatasetSource::parseJsonLine);
+        }
+        if (name.endsWith(".csv")) {
+            List<String> header;
+            try {
+                String headerLine = reader.readLine();
+                header = headerLine == null ? new ArrayList<>() : parseCsvLine(stripBom(headerLine));
+            } catch (IOException e) {
+                lines.close();
+                throw new UncheckedIOException("Не удалось прочитать заголовок набора данных " + file, e);
+            }
+            return lines.filter(line -> !line.trim().isEmpty()).map(line -> toRow(header, parseCsvLine(line)));
+        }
+        lines.close();
+        throw new IllegalArgumentException("Неизвестный формат набора данных, ожидается .csv или .jsonl: " + file);
+    }
+
+    /**
+     * Создает фильтр строк из условий вида "колонка=значение"; строка проходит, если выполнены все условия.
+     *
+     * @param conditions условия фильтра
+     * @return фильтр строк
+     */
+    static Predicate<Map<String, String>> filter(List<String> conditions) {
+        Predicate<Map<String, String>> filter = row -> true;
+        for (String condition : conditions) {
+            if (condition.trim().isEmpty()) {
+                continue;
+            }
+            int separator = condition.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Условие dataset.filter должно иметь вид колонка=значение: "
+                        + condition);
+            }
+            String column = condition.substring(0, separator).trim();
+            String value = condition.substring(separator + 1).trim();
+            filter = filter.and(row -> value.equals(row.get(column)));
+        }
+        return filter;
+    }
+
+    /**
+     * Разбирает строку CSV: значения разделяются запятыми, значения с запятыми и кавычками заключаются
+     * в двойные кавычки, кавычка внутри такого значения удваивается.
+     *
+     * @param line строка CSV
+     * @return значения строки
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    /**
+     * Сопоставляет значения строки CSV с именами колонок.
+     *
+     * @param header имена колонок
+     * @param values значения строки
+     * @return значения по именам колонок
+     */
+    private static Map<String, String> toRow(List<String> header, List<String> values) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return row;
+    }
+
+    /**
+     * Разбирает строку JSONL.
+     *
+     * @param line строка с JSON-объектом
+     * @return значения по именам полей
+     */
+    private static Map<String, String> parseJsonLine(String line) {
+        Map<String, Object> object = JSON.toType(line, Json.MAP_TYPE);
+        Map<String, String> row = new LinkedHashMap<>();
+        object.forEach((key, value) -> row.put(key, value == null ? null : String.valueOf(value)));
+        return row;
+    }
+
+    /**
+     * Удаляет метку порядка байтов UTF-8 в начале файла.
+     *
+     * @param line первая строка файла
+     * @return строка без метки
+     */
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,161 @@
+package com.bellintegrator.data;
+
+import com.bellintegrator.properties.Properties;
+import org.junit.jupiter.params.provider.Arguments;
+import java.util.Map;
+
+/**
+ * Класс SearchCase описывает набор аргументов теста поиска смартфонов на сайте Citilink.
+ * Набор создается из строки набора данных по именам колонок, совпадающим с именами параметров теста;
+ * отсутствующие колонки заполняются значениями встроенного набора аргументов.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class SearchCase {
+
+    /**
+     * URL стартовой страницы.
+     */
+    private final String url;
+
+    /**
+     * Имя кнопки для первоначального клика.
+     */
+    private final String buttonName;
+
+    /**
+     * Имя пункта меню, на который наводится курсор.
+     */
+    private final String menuName;
+
+    /**
+     * Имя подменю, на которое выполняется клик.
+     */
+    private final String innerMenuName;
+
+    /**
+     * Ожидаемый фрагмент URL, он же путь раздела каталога.
+     */
+    private final String checkURL;
+
+    /**
+     * Блок фильтров.
+     */
+    private final String filterBlock;
+
+    /**
+     * Имя кнопки "Показать все" в блоке фильтров.
+     */
+    private final String buttonNameInFilterBlock;
+
+    /**
+     * Элемент, выбираемый в блоке фильтров.
+     */
+    private final String element;
+
+    /**
+     * Текст, который должен быть в названиях продуктов.
+     */
+    private final String productName;
+
+    /**
+     * Текст кнопки "Показать еще".
+     */
+    private final String showMoreButton;
+
+    /**
+     * Конструктор набора аргументов.
+     *
+     * @param url URL стартовой страницы
+     * @param buttonName имя кнопки для первоначального клика
+     * @param menuName имя пункта меню
+     * @param innerMenuName имя подменю
+     * @param checkURL ожидаемый фрагмент URL
+     * @param filterBlock блок фильтров
+     * @param buttonNameInFilterBlock имя кнопки "Показать все" в блоке фильтров
+     * @param element элемент в блоке фильтров
+     * @param productName текст в названиях продуктов
+     * @param showMoreButton текст кнопки "Показать еще"
+     */
+    public SearchCase(String url, String buttonName, String menuName, String innerMenuName, String checkURL,
+                      String filterBlock, String buttonNameInFilterBlock, String element, String productName,
+                      String showMoreButton) {
+        this.url = url;
+        this.buttonName = buttonName;
+        this.menuName = menuName;
+        this.innerMenuName = innerMenuName;
+        this.checkURL = checkURL;
+        this.filterBlock = filterBlock;
+        this.buttonNameInFilterBlock = buttonNameInFilterBlock;
+        this.element = element;
+        this.productName = productName;
+        this.showMoreButton = showMoreButton;
+    }
+
+    /**
+     * Возвращает встроенный набор аргументов: смартфоны APPLE.
+     *
+     * @return набор аргументов
+     */
+    public static SearchCase defaultCase() {
+        return new SearchCase(
+                Properties.testsProperties.citilinkUrl(),
+                "Каталог товаров",
+                "Смартфоны и планшеты",
+                "Смартфоны",
+                "/catalog/smartfony/",
+                "Бренд",
+                "Показать все",
+                "APPLE",
+                "iPhone",
+                "Показать ещё"
+        );
+    }
+
+    /**
+     * Создает набор аргументов из строки набора данных.
+     *
+     * @param row значения по именам колонок
+     * @return набор аргументов
+     */
+    public static SearchCase fromRow(Map<String, String> row) {
+        SearchCase defaults = defaultCase();
+        return new SearchCase(
+                value(row, "url", defaults.url),
+                value(row, "buttonName", defaults.buttonName),
+                value(row, "menuName", defaults.menuName),
+                value(row, "innerMenuName", defaults.innerMenuName),
+                value(row, "checkURL", defaults.checkURL),
+                value(row, "filterBlock", defaults.filterBlock),
+                value(row, "buttonNameInFilterBlock", defaults.buttonNameInFilterBlock),
+                value(row, "element", defaults.element),
+                value(row, "productName", defaults.productName),
+                value(row, "showMoreButton", defaults.showMoreButton)
+        );
+    }
+
+    /**
+     * Преобразует набор в аргументы теста в порядке параметров метода.
+     *
+     * @return аргументы теста
+     */
+    public Arguments toArguments() {
+        return Arguments.of(url, buttonName, menuName, innerMenuName, checkURL, filterBlock,
+                buttonNameInFilterBlock, element, productName, showMoreButton);
+    }
+
+    /**
+     * Возвращает значение колонки или значение по умолчанию, если колонки нет или она пуста.
+     *
+     * @param row значения по именам колонок
+     * @param column имя колонки
+     * @param defaultValue значение по умолчанию
+     * @return значение
+     */
+    private static String value(Map<String, String> row, String column, String defaultValue) {
+        String value = row.get(column);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bellintegrator.data;
+
+import com.bellintegrator.properties.Properties;
+import org.junit.jupiter.params.provider.Arguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Класс Sharding распределяет наборы аргументов параметризованных тестов между N исполнителями.
+ * Исполнитель с номером shard.index получает каждый shard.count-й набор аргументов либо, при распределении
+ * по истории длительности, наборы, назначенные ему жадным алгоритмом "сначала самые долгие".
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class Sharding {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(Sharding.class);
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private Sharding() {
+    }
+
+    /**
+     * Оставляет в потоке только наборы аргументов текущего исполнителя.
+     *
+     * @param cases упорядоченный поток наборов аргументов
+     * @param <T> тип набора аргументов
+     * @return поток наборов аргументов текущего исполнителя
+     */
+    public static <T> Stream<T> select(Stream<T> cases) {
+        int count = Math.max(1, Properties.testsProperties.shardCount());
+        int index = Properties.testsProperties.shardIndex();
+        if (count == 1) {
+            return cases;
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index должен быть в диапазоне [0, " + count + "): " + index);
+        }
+        AtomicLong position = new AtomicLong();
+        return cases.sequential().filter(item -> position.getAndIncrement() % count == index);
+    }
+
+    /**
+     * Распределяет наборы аргументов между исполнителями по истории длительности TestDurations:
+     * наборы по убыванию предсказанной длительности назначаются исполнителю с наименьшей суммарной нагрузкой,
+     * что сокращает время самого долгого исполнителя. Наборам без истории назначается средняя длительность
+     * известных наборов, а если истории нет совсем - test.durations.default.millis. Распределение одинаково
+     * на всех исполнителях при одинаковом файле истории. Наборы текущего исполнителя возвращаются по убыванию
+     * длительности, чтобы при параллельном выполнении долгие тесты начинались первыми.
+     * Поток наборов читается целиком и закрывается.
+     *
+     * @param cases упорядоченный поток наборов аргументов
+     * @return поток наборов аргументов текущего исполнителя
+     */
+    public static Stream<Arguments> selectByDuration(Stream<Arguments> cases) {
+        int count = Math.max(1, Properties.testsProperties.shardCount());
+        int index = Properties.testsProperties.shardIndex();
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index должен быть в диапазоне [0, " + count + "): " + index);
+        }
+        List<Arguments> all;
+        try (Stream<Arguments> stream = cases) {
+            all = stream.collect(Collectors.toList());
+        }
+        long[] predicted = all.stream().mapToLong(arguments -> TestDurations.predict(arguments.get())).toArray();
+        long estimate = Math.round(IntStream.range(0, predicted.length).filter(i -> predicted[i] >= 0)
+                .mapToLong(i -> predicted[i]).average()
+                .orElse(Properties.testsProperties.testDurationsDefaultMillis()));
+
+        List<Integer> order = IntStream.range(0, all.size()).boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> predicted[i] >= 0 ? predicted[i] : estimate)
+                        .reversed().thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+        long[] load = new long[count];
+        List<Arguments> selected = new ArrayList<>();
+        for (int i : order) {
+            long duration = predicted[i] >= 0 ? predicted[i] : estimate;
+            int shard = 0;
+            for (int candidate = 1; candidate < count; candidate++) {
+                if (load[candidate] < load[shard]) {
+                    shard = candidate;
+                }
+            }
+            load[shard] += duration;
+            if (shard == index) {
+                selected.add(all.get(i));
+                TestDurations.expect(all.get(i).get(), duration);
+            }
+        }
+        long makespan = 0;
+        for (long shardLoad : load) {
+            makespan = Math.max(makespan, shardLoad);
+        }
+        LOGGER.info("Исполнитель {} из {}: {} наборов аргументов, предсказано {} мс, самый долгий исполнитель {} мс",
+                index, count, selected.size(), load[index], makespan);
+        return selected.stream();
+    }
+}
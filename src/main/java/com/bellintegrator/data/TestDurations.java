@@ -0,0 +1,257 @@
+package com.bellintegrator.data;
+
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.Reports;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс TestDurations хранит историю длительности тестов по ключу "Класс.метод[аргументы]", например
+ * Task_2_1_Test.testSearchingSmartPhones[/, Каталог товаров, ..., APPLE, ...]. Длительность сглаживается
+ * между запусками (экспоненциальное среднее с коэффициентом test.durations.smoothing) и сохраняется в файл
+ * test.durations.file после прогона. По истории предсказывается длительность набора аргументов - сумма
+ * длительностей всех тестов, которые его используют; по окончании прогона предсказание сравнивается с фактом.
+ * Адреса в аргументах заменяются путем, чтобы ключ не зависел от адреса стенда.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class TestDurations {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestDurations.class);
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Сглаженные длительности из истории по ключу теста.
+     */
+    private static final Map<String, Double> HISTORY = new ConcurrentHashMap<>();
+
+    /**
+     * Суммы сглаженных длительностей из истории по ключу аргументов, построенные при загрузке истории.
+     */
+    private static final Map<String, Double> HISTORY_BY_ARGUMENTS = new ConcurrentHashMap<>();
+
+    /**
+     * Длительности тестов текущего прогона по ключу теста.
+     */
+    private static final Map<String, Long> ACTUAL = new ConcurrentHashMap<>();
+
+    /**
+     * Предсказанные длительности наборов аргументов, выбранных текущим исполнителем, по ключу аргументов.
+     */
+    private static final Map<String, Long> PREDICTED = new ConcurrentHashMap<>();
+
+    /**
+     * Момент начала первого теста прогона в миллисекундах.
+     */
+    private static final AtomicLong FIRST_START = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Момент окончания последнего теста прогона в миллисекундах.
+     */
+    private static final AtomicLong LAST_END = new AtomicLong();
+
+    /**
+     * Признак загрузки истории.
+     */
+    private static volatile boolean loaded;
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private TestDurations() {
+    }
+
+    /**
+     * Формирует ключ набора аргументов.
+     *
+     * @param arguments аргументы теста
+     * @return ключ в виде "[аргумент, аргумент, ...]"
+     */
+    public static String argumentsKey(Object[] arguments) {
+        List<String> values = new ArrayList<>(arguments.length);
+        for (Object argument : arguments) {
+            values.add(normalize(argument));
+        }
+        return values.toString();
+    }
+
+    /**
+     * Записывает длительность теста текущего прогона.
+     *
+     * @param testName имя теста в виде "Класс.метод"
+     * @param arguments аргументы теста
+     * @param startMillis момент начала в миллисекундах
+     * @param durationMillis длительность в миллисекундах
+     */
+    public static void record(String testName, Object[] arguments, long startMillis, long durationMillis) {
+        ACTUAL.merge(testName + argumentsKey(arguments), durationMillis, Long::sum);
+        FIRST_START.accumulateAndGet(startMillis, Math::min);
+        LAST_END.accumulateAndGet(startMillis + durationMillis, Math::max);
+    }
+
+    /**
+     * Предсказывает длительность набора аргументов по истории всех тестов, которые его используют.
+     *
+     * @param arguments аргументы тестов
+     * @return сумма сглаженных длительностей или -1, если набор аргументов в истории не встречался
+     */
+    public static long predict(Object[] arguments) {
+        load();
+        Double total = HISTORY_BY_ARGUMENTS.get(argumentsKey(arguments));
+        return total != null ? Math.round(total) : -1;
+    }
+
+    /**
+     * Запоминает предсказание для набора аргументов, выбранного текущим исполнителем.
+     *
+     * @param arguments аргументы тестов
+     * @param predictedMillis предсказанная длительность в миллисекундах
+     */
+    static void expect(Object[] arguments, long predictedMillis) {
+        PREDICTED.put(argumentsKey(arguments), predictedMillis);
+    }
+
+    /**
+     * Сохраняет длительности текущего прогона в историю. Сглаживание считается от истории на начало прогона,
+     * поэтому повторное сохранение за прогон не искажает значения. Файл перечитывается перед записью,
+     * чтобы не потерять длительности, записанные другими исполнителями.
+     */
+    public static synchronized void save() {
+        if (ACTUAL.isEmpty()) {
+            return;
+        }
+        load();
+        Path file = Paths.get(Properties.testsProperties.testDurationsFile());
+        Map<String, Object> stored = new TreeMap<>(read(file));
+        double smoothing = Properties.testsProperties.testDurationsSmoothing();
+        ACTUAL.forEach((key, actual) -> {
+            Double previous = HISTORY.get(key);
+            double value = previous != null ? smoothing * actual + (1 - smoothing) * previous : actual;
+            stored.put(key, Math.round(value));
+        });
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, JSON.toJson(stored).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось сохранить историю длительности тестов {}", file, e);
+        }
+    }
+
+    /**
+     * Выводит предсказанную и фактическую длительность тестов текущего исполнителя
+     * и записывает их в файл отчета test-durations.json.
+     */
+    public static void report() {
+        Map<String, Long> actualByArguments = new TreeMap<>();
+        ACTUAL.forEach((key, actual) -> actualByArguments.merge(key.substring(key.indexOf('[')), actual, Long::sum));
+        List<Map<String, Object>> cases = new ArrayList<>();
+        long predictedTotal = 0;
+        for (Map.Entry<String, Long> entry : new TreeMap<>(PREDICTED).entrySet()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("arguments", entry.getKey());
+            item.put("predictedMillis", entry.getValue());
+            item.put("actualMillis", actualByArguments.get(entry.getKey()));
+            cases.add(item);
+            predictedTotal += entry.getValue();
+        }
+        long actualTotal = ACTUAL.values().stream().mapToLong(Long::longValue).sum();
+        long wall = LAST_END.get() > 0 ? LAST_END.get() - FIRST_START.get() : 0;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("shardIndex", Properties.testsProperties.shardIndex());
+        summary.put("shardCount", Math.max(1, Properties.testsProperties.shardCount()));
+        summary.put("predictedMillis", predictedTotal);
+        summary.put("actualMillis", actualTotal);
+        summary.put("wallMillis", wall);
+        summary.put("cases", cases);
+        LOGGER.info("Длительность тестов исполнителя {}: предсказано {} мс, фактически {} мс, по часам {} мс",
+                summary.get("shardIndex"), predictedTotal, actualTotal, wall);
+        Reports.writeJson("test-durations.json", summary);
+    }
+
+    /**
+     * Загружает историю из файла один раз за прогон и суммирует длительности по ключу аргументов,
+     * чтобы предсказание для набора аргументов не перебирало всю историю.
+     */
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (TestDurations.class) {
+            if (!loaded) {
+                read(Paths.get(Properties.testsProperties.testDurationsFile())).forEach((key, value) -> {
+                    int arguments = key.indexOf('[');
+                    if (value instanceof Number && arguments >= 0) {
+                        double duration = ((Number) value).doubleValue();
+                        HISTORY.put(key, duration);
+                        HISTORY_BY_ARGUMENTS.merge(key.substring(arguments), duration, Double::sum);
+                    }
+                });
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Читает файл истории.
+     *
+     * @param file файл истории
+     * @return длительности по ключу теста или пустой словарь, если файла нет или он поврежден
+     */
+    private static Map<String, Object> read(Path file) {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return JSON.toType(reader, Json.MAP_TYPE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось прочитать историю длительности тестов {}", file, e);
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * Приводит аргумент к виду, не зависящему от адреса стенда.
+     *
+     * @param argument аргумент теста
+     * @return строковое значение аргумента
+     */
+    private static String normalize(Object argument) {
+        String value = String.valueOf(argument);
+        if (value.startsWith("http://") || value.startsWith("https://")) {
+            try {
+                String path = URI.create(value).getRawPath();
+                return path == null || path.isEmpty() ? "/" : path;
+            } catch (IllegalArgumentException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+}
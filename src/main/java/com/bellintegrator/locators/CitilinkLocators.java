@@ -0,0 +1,101 @@
+package com.bellintegrator.locators;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Класс CitilinkLocators содержит реестр локаторов страниц сайта Citilink.
+ * Там, где это возможно, используются CSS-селекторы; XPath остается для поиска по тексту.
+ * Поиск по тексту выполняется одним запросом к браузеру вместо перебора всех span/button на странице.
+ * В отличие от exactText, XPath находит и скрытые копии элементов (например, в мобильной версии меню),
+ * поэтому страницы выбирают из найденных элементов видимый.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class CitilinkLocators {
+
+    /**
+     * Элемент span с заданным текстом (кнопки стартовой страницы).
+     */
+    public static final Locator SPAN_WITH_TEXT = Locator.xpath("spanWithText",
+            "//span[normalize-space(.)={0}]", "Каталог товаров");
+
+    /**
+     * Раздел меню каталога, содержащий пункт с заданным текстом.
+     */
+    public static final Locator CATALOG_MENU_SECTION = Locator.xpath("catalogMenuSection",
+            "//span[normalize-space(.)={0}]/ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__menu']",
+            "Смартфоны и планшеты");
+
+    /**
+     * Пункт внутреннего меню каталога с заданным текстом.
+     */
+    public static final Locator CATALOG_INNER_MENU_ITEM = Locator.xpath("catalogInnerMenuItem",
+            "//div[@data-meta-name='CatalogMenuDesktopLayout__body']//span[text()={0}]", "Смартфоны");
+
+    /**
+     * Блок фильтров с заданным именем.
+     */
+    public static final Locator FILTER_BLOCK = Locator.css("filterBlock",
+            "div[data-meta-value={0}]", "Бренд");
+
+    /**
+     * Кнопка с заданным текстом в блоке фильтров.
+     */
+    public static final Locator FILTER_BLOCK_BUTTON = Locator.xpath("filterBlockButton",
+            "//div[@data-meta-value={0}]//button[text()={1}]", "Бренд", "Показать все");
+
+    /**
+     * Подписи чекбоксов в блоке фильтров.
+     */
+    public static final Locator FILTER_BLOCK_ITEMS = Locator.xpath("filterBlockItems",
+            "//div[@data-meta-value={0}]//span[preceding-sibling::span[input[@type='checkbox']]]//span",
+            "Бренд");
+
+    /**
+     * Названия продуктов в результирующем блоке.
+     */
+    public static final Locator PRODUCT_TITLES = Locator.css("productTitles",
+            "[data-meta-name='ProductVerticalSnippet'] a[data-meta-name='Snippet__title']");
+
+    /**
+     * Блок с результатами поиска - карточки продуктов списка. Сам ProductListLayout включает также фильтры
+     * и кнопку "Показать ещё", изменения которых не означают обновления результатов.
+     */
+    public static final Locator RESULTS_BLOCK = Locator.css("resultsBlock",
+            "[data-meta-name='ProductListLayout'] [data-meta-name='ProductVerticalSnippet']");
+
+    /**
+     * Кнопка с заданным текстом (например, "Показать еще").
+     */
+    public static final Locator BUTTON_WITH_TEXT = Locator.xpath("buttonWithText",
+            "//button[normalize-space(.)={0}]", "Показать ещё");
+
+    /**
+     * Закрытый конструктор реестра.
+     */
+    private CitilinkLocators() {
+    }
+
+    /**
+     * Возвращает все локаторы реестра.
+     *
+     * @return список локаторов
+     */
+    public static List<Locator> all() {
+        return Collections.unmodifiableList(Arrays.asList(
+                SPAN_WITH_TEXT,
+                CATALOG_MENU_SECTION,
+                CATALOG_INNER_MENU_ITEM,
+                FILTER_BLOCK,
+                FILTER_BLOCK_BUTTON,
+                FILTER_BLOCK_ITEMS,
+                PRODUCT_TITLES,
+                RESULTS_BLOCK,
+                BUTTON_WITH_TEXT
+        ));
+    }
+}
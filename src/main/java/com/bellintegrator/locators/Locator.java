@@ -0,0 +1,188 @@
+package com.bellintegrator.locators;
+
+import org.openqa.selenium.By;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс Locator описывает параметризованный локатор страницы. Шаблон содержит позиции {0}, {1}, ...,
+ * на место которых подставляются экранированные строковые литералы XPath или CSS.
+ * Готовые объекты By кешируются по набору параметров, поэтому строка локатора собирается один раз.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class Locator {
+
+    /**
+     * Тип выражения локатора.
+     */
+    public enum Type {
+        /**
+         * CSS-селектор.
+         */
+        CSS,
+        /**
+         * Выражение XPath.
+         */
+        XPATH
+    }
+
+    /**
+     * Имя локатора для отчетов.
+     */
+    private final String name;
+
+    /**
+     * Тип выражения локатора.
+     */
+    private final Type type;
+
+    /**
+     * Шаблон выражения локатора.
+     */
+    private final String template;
+
+    /**
+     * Пример параметров, используемый при замерах производительности локатора.
+     */
+    private final List<String> sampleArguments;
+
+    /**
+     * Готовые объекты By по набору параметров.
+     */
+    private final Map<List<String>, By> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор локатора.
+     *
+     * @param name имя локатора
+     * @param type тип выражения
+     * @param template шаблон выражения
+     * @param sampleArguments пример параметров
+     */
+    private Locator(String name, Type type, String template, String... sampleArguments) {
+        this.name = name;
+        this.type = type;
+        this.template = template;
+        this.sampleArguments = Arrays.asList(sampleArguments);
+    }
+
+    /**
+     * Создает CSS-локатор.
+     *
+     * @param name имя локатора
+     * @param template шаблон CSS-селектора
+     * @param sampleArguments пример параметров
+     * @return локатор
+     */
+    public static Locator css(String name, String template, String... sampleArguments) {
+        return new Locator(name, Type.CSS, template, sampleArguments);
+    }
+
+    /**
+     * Создает XPath-локатор.
+     *
+     * @param name имя локатора
+     * @param template шаблон выражения XPath
+     * @param sampleArguments пример параметров
+     * @return локатор
+     */
+    public static Locator xpath(String name, String template, String... sampleArguments) {
+        return new Locator(name, Type.XPATH, template, sampleArguments);
+    }
+
+    /**
+     * Возвращает объект By для указанных параметров, собирая его при первом обращении.
+     *
+     * @param arguments параметры локатора
+     * @return объект By
+     */
+    public By by(String... arguments) {
+        return compiled.computeIfAbsent(Arrays.asList(arguments), key -> {
+            String expression = expression(arguments);
+            return type == Type.CSS ? By.cssSelector(expression) : By.xpath(expression);
+        });
+    }
+
+    /**
+     * Возвращает выражение локатора с подставленными параметрами.
+     *
+     * @param arguments параметры локатора
+     * @return выражение CSS или XPath
+     */
+    public String expression(String... arguments) {
+        String expression = template;
+        for (int i = 0; i < arguments.length; i++) {
+            String literal = type == Type.CSS ? cssLiteral(arguments[i]) : xpathLiteral(arguments[i]);
+            expression = expression.replace("{" + i + "}", literal);
+        }
+        return expression;
+    }
+
+    /**
+     * Возвращает имя локатора.
+     *
+     * @return имя локатора
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает тип выражения локатора.
+     *
+     * @return тип выражения
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Возвращает пример параметров локатора.
+     *
+     * @return пример параметров
+     */
+    public String[] getSampleArguments() {
+        return sampleArguments.toArray(new String[0]);
+    }
+
+    /**
+     * Экранирует строку как литерал XPath.
+     *
+     * @param value строка
+     * @return литерал XPath
+     */
+    private static String xpathLiteral(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+
+    /**
+     * Экранирует строку как литерал CSS.
+     *
+     * @param value строка
+     * @return литерал CSS
+     */
+    private static String cssLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Возвращает имя и шаблон локатора.
+     *
+     * @return описание локатора
+     */
+    @Override
+    public String toString() {
+        return name + " (" + type + ": " + template + ")";
+    }
+}
@@ -0,0 +1,146 @@
+package com.bellintegrator.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Класс LatencyHistogram накапливает длительности в логарифмически-линейной гистограмме без блокировок.
+ * Значения хранятся в микросекундах: до 16 мкс точно, дальше каждая степень двойки делится на 8 корзин,
+ * поэтому относительная погрешность перцентилей не превышает 12,5%. Память постоянна и не зависит от числа замеров.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class LatencyHistogram {
+
+    /**
+     * Количество точных корзин для малых значений.
+     */
+    private static final int LINEAR_BUCKETS = 16;
+
+    /**
+     * Количество корзин на каждую степень двойки (3 бита мантиссы).
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    /**
+     * Старший бит наибольшего учитываемого значения: 2^40 мкс, около 12 суток.
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * Счетчики корзин.
+     */
+    private final AtomicLongArray buckets =
+            new AtomicLongArray(LINEAR_BUCKETS + (MAX_EXPONENT - 4) * SUB_BUCKETS);
+
+    /**
+     * Количество замеров.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Сумма замеров в микросекундах.
+     */
+    private final AtomicLong sumMicros = new AtomicLong();
+
+    /**
+     * Наибольший замер в микросекундах.
+     */
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Добавляет замер.
+     *
+     * @param nanos длительность в наносекундах
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Возвращает количество замеров.
+     *
+     * @return количество замеров
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Возвращает сумму замеров.
+     *
+     * @return сумма в миллисекундах
+     */
+    public double getSumMillis() {
+        return sumMicros.get() / 1000.0;
+    }
+
+    /**
+     * Возвращает наибольший замер.
+     *
+     * @return наибольшая длительность в миллисекундах
+     */
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Возвращает перцентиль длительности как верхнюю границу корзины, не превышающую наибольший замер.
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return длительность в миллисекундах
+     */
+    public double percentileMillis(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Вычисляет индекс корзины для значения.
+     *
+     * @param micros значение в микросекундах
+     * @return индекс корзины
+     */
+    static int index(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT - 1);
+        int mantissa = (int) ((Math.min(micros, (1L << (exponent + 1)) - 1) >> (exponent - 3)) & (SUB_BUCKETS - 1));
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Вычисляет верхнюю границу корзины.
+     *
+     * @param index индекс корзины
+     * @return наибольшее значение корзины в микросекундах
+     */
+    static long upperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int mantissa = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - 3);
+        return (SUB_BUCKETS + mantissa) * width + width - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bellintegrator.metrics;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс SelenideTimingListener записывает длительность каждой команды Selenide в StepTimings
+ * под именем "selenide.команда", например selenide.click или selenide.should have.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class SelenideTimingListener implements LogEventListener {
+
+    /**
+     * Записывает длительность завершенной команды.
+     *
+     * @param event событие Selenide
+     */
+    @Override
+    public void afterEvent(LogEvent event) {
+        StepTimings.record("selenide." + command(event.getSubject()), TimeUnit.MILLISECONDS.toNanos(event.getDuration()));
+    }
+
+    /**
+     * Ничего не делает: длительность известна по завершении команды.
+     *
+     * @param event событие Selenide
+     */
+    @Override
+    public void beforeEvent(LogEvent event) {
+    }
+
+    /**
+     * Выделяет имя команды из описания события, отбрасывая аргументы.
+     *
+     * @param subject описание события, например "click()" или "should have(text 'iPhone')"
+     * @return имя команды
+     */
+    private static String command(String subject) {
+        if (subject == null) {
+            return "unknown";
+        }
+        int bracket = subject.indexOf('(');
+        return (bracket < 0 ? subject : subject.substring(0, bracket)).trim();
+    }
+}
@@ -0,0 +1,78 @@
+package com.bellintegrator.metrics;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Аспект StepTimingAspect замеряет длительность методов, отмеченных аннотацией Allure Step,
+ * и записывает ее в StepTimings под именем "Класс.метод". Подключается через META-INF/aop.xml
+ * тем же агентом aspectjweaver, что и аспекты Allure. Как и аспекты Allure, использует советы
+ * до и после метода вместо around: around-совет порождает классы замыканий, которые weaver
+ * не может определить на современных JDK без открытия java.lang.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@Aspect
+public class StepTimingAspect {
+
+    /**
+     * Моменты начала вложенных шагов текущего потока.
+     */
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Методы, отмеченные аннотацией Step.
+     */
+    @Pointcut("execution(@io.qameta.allure.Step * *(..))")
+    public void stepMethod() {
+    }
+
+    /**
+     * Запоминает момент начала шага.
+     */
+    @Before("stepMethod()")
+    public void stepStart() {
+        STARTS.get().push(System.nanoTime());
+    }
+
+    /**
+     * Записывает длительность успешно завершенного шага.
+     *
+     * @param joinPoint точка выполнения шага
+     */
+    @AfterReturning("stepMethod()")
+    public void stepStop(JoinPoint joinPoint) {
+        record(joinPoint);
+    }
+
+    /**
+     * Записывает длительность шага, завершившегося исключением.
+     *
+     * @param joinPoint точка выполнения шага
+     */
+    @AfterThrowing("stepMethod()")
+    public void stepFailed(JoinPoint joinPoint) {
+        record(joinPoint);
+    }
+
+    /**
+     * Записывает длительность шага с момента соответствующего начала.
+     *
+     * @param joinPoint точка выполнения шага
+     */
+    private static void record(JoinPoint joinPoint) {
+        Long start = STARTS.get().poll();
+        if (start != null) {
+            StepTimings.record(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.bellintegrator.metrics;
+
+import com.bellintegrator.service.Reports;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Класс StepTimings собирает гистограммы длительностей шагов по имени шага за весь прогон
+ * и отдельно за текущий тест потока. Шаги page object записываются как "Класс.метод",
+ * команды Selenide как "selenide.команда".
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class StepTimings {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StepTimings.class);
+
+    /**
+     * Перцентили, попадающие в отчеты.
+     */
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    /**
+     * Гистограммы за весь прогон.
+     */
+    private static final ConcurrentMap<String, LatencyHistogram> RUN = new ConcurrentHashMap<>();
+
+    /**
+     * Гистограммы текущего теста потока.
+     */
+    private static final ThreadLocal<Map<String, LatencyHistogram>> TEST = ThreadLocal.withInitial(TreeMap::new);
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private StepTimings() {
+    }
+
+    /**
+     * Добавляет замер шага.
+     *
+     * @param step имя шага
+     * @param nanos длительность в наносекундах
+     */
+    public static void record(String step, long nanos) {
+        RUN.computeIfAbsent(step, key -> new LatencyHistogram()).record(nanos);
+        TEST.get().computeIfAbsent(step, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Прикладывает к отчету Allure длительности шагов текущего теста и начинает замеры следующего теста.
+     */
+    public static void attachTestTimings() {
+        Map<String, LatencyHistogram> test = TEST.get();
+        if (!test.isEmpty()) {
+            Allure.addAttachment("Длительность шагов", "application/json", new Json().toJson(summary(test)), ".json");
+        }
+        TEST.remove();
+    }
+
+    /**
+     * Выводит перцентили длительностей шагов за прогон в лог и записывает их в файлы отчета
+     * step-latency.json и step-latency.prom (текстовый формат Prometheus).
+     */
+    public static void report() {
+        Map<String, LatencyHistogram> run = new TreeMap<>(RUN);
+        if (run.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Object>> summary = summary(run);
+        LOGGER.info("Длительность шагов: {}", summary);
+        Reports.writeJson("step-latency.json", summary);
+        Reports.writeText("step-latency.prom", prometheus(run));
+    }
+
+    /**
+     * Формирует сводку перцентилей по шагам.
+     *
+     * @param histograms гистограммы по именам шагов
+     * @return количество, перцентили и максимум в миллисекундах по именам шагов
+     */
+    private static Map<String, Map<String, Object>> summary(Map<String, LatencyHistogram> histograms) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        histograms.forEach((step, histogram) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getCount());
+            for (double percentile : PERCENTILES) {
+                values.put("p" + (int) percentile + "Millis", histogram.percentileMillis(percentile));
+            }
+            values.put("maxMillis", histogram.getMaxMillis());
+            summary.put(step, values);
+        });
+        return summary;
+    }
+
+    /**
+     * Формирует метрику summary в текстовом формате Prometheus.
+     *
+     * @param histograms гистограммы по именам шагов
+     * @return текст метрик
+     */
+    private static String prometheus(Map<String, LatencyHistogram> histograms) {
+        StringBuilder text = new StringBuilder()
+                .append("# HELP test_step_duration_seconds Duration of test steps and Selenide commands.\n")
+                .append("# TYPE test_step_duration_seconds summary\n");
+        histograms.forEach((step, histogram) -> {
+            String label = "step=\"" + step.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+            for (double percentile : PERCENTILES) {
+                text.append(String.format(Locale.ROOT, "test_step_duration_seconds{%s,quantile=\"%s\"} %.6f%n",
+                        label, percentile / 100.0, histogram.percentileMillis(percentile) / 1000.0));
+            }
+            text.append(String.format(Locale.ROOT, "test_step_duration_seconds_sum{%s} %.6f%n",
+                    label, histogram.getSumMillis() / 1000.0));
+            text.append(String.format(Locale.ROOT, "test_step_duration_seconds_count{%s} %d%n",
+                    label, histogram.getCount()));
+        });
+        return text.toString();
+    }
+}
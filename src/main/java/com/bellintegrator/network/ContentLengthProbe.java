@@ -0,0 +1,105 @@
+package com.bellintegrator.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс ContentLengthProbe оценивает размер заблокированных ресурсов в режиме LIVE, когда сетевого архива нет:
+ * отправляет HEAD-запрос и берет размер из заголовка Content-Length. Запросы выполняются в фоновых потоках,
+ * поэтому ответ браузеру на заблокированный запрос не задерживается; размер каждого URL запрашивается один раз
+ * за прогон. Включается свойством network.block.size.probe; RequestBlocker не передает сюда адреса,
+ * совпадающие с запрещающими шаблонами.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class ContentLengthProbe {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentLengthProbe.class);
+
+    /**
+     * Количество потоков, выполняющих HEAD-запросы.
+     */
+    private static final int THREADS = 2;
+
+    /**
+     * Таймаут соединения и чтения ответа в миллисекундах.
+     */
+    private final int timeoutMillis;
+
+    /**
+     * Потоки, выполняющие HEAD-запросы.
+     */
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "content-length-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Размеры ресурсов по URL, полученные или запрошенные в текущем прогоне.
+     */
+    private final Map<String, CompletableFuture<OptionalLong>> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор оценки размера.
+     *
+     * @param timeoutMillis таймаут соединения и чтения ответа в миллисекундах
+     */
+    public ContentLengthProbe(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Оценивает размер ответа на запрос. Размер известен только для GET-запросов по HTTP и HTTPS.
+     *
+     * @param method HTTP-метод
+     * @param url URL запроса
+     * @return размер ответа или пустое значение, если его не удалось узнать
+     */
+    public CompletableFuture<OptionalLong> size(String method, String url) {
+        if (!"GET".equals(method) || !(url.startsWith("http://") || url.startsWith("https://"))) {
+            return CompletableFuture.completedFuture(OptionalLong.empty());
+        }
+        return sizes.computeIfAbsent(url, key -> CompletableFuture.supplyAsync(() -> head(key), executor));
+    }
+
+    /**
+     * Отправляет HEAD-запрос и читает заголовок Content-Length.
+     *
+     * @param url URL ресурса
+     * @return размер ресурса или пустое значение, если сервер его не сообщил
+     */
+    private OptionalLong head(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setRequestProperty("Accept-Encoding", "gzip, deflate, br");
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            long length = connection.getResponseCode() < 400 ? connection.getContentLengthLong() : -1;
+            return length >= 0 ? OptionalLong.of(length) : OptionalLong.empty();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Не удалось узнать размер ресурса {}", url, e);
+            return OptionalLong.empty();
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
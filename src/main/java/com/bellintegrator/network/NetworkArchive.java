@@ -0,0 +1,363 @@
+package com.bellintegrator.network;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс NetworkArchive хранит на диске ответы, полученные браузером во время прогона,
+ * и отдает их при воспроизведении. Архив состоит из файла index.json с описанием ответов
+ * и каталога bodies с телами ответов, названными по хешу содержимого.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class NetworkArchive {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkArchive.class);
+
+    /**
+     * Заголовки, которые не сохраняются: тело хранится уже распакованным, а длина вычисляется заново.
+     */
+    private static final List<String> SKIPPED_HEADERS =
+            Arrays.asList("content-encoding", "content-length", "transfer-encoding");
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Каталог архива.
+     */
+    private final Path directory;
+
+    /**
+     * Записи архива по ключу "METHOD url".
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Записи архива по ключу "METHOD путь?запрос" для обращения к архиву через локальный сервер.
+     */
+    private final Map<String, Entry> entriesByPath = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор архива.
+     *
+     * @param directory каталог архива
+     */
+    public NetworkArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Загружает архив из каталога.
+     *
+     * @param directory каталог архива
+     * @return загруженный архив
+     */
+    public static NetworkArchive load(Path directory) {
+        NetworkArchive archive = new NetworkArchive(directory);
+        try (Reader reader = Files.newBufferedReader(directory.resolve("index.json"), StandardCharsets.UTF_8)) {
+            List<Map<String, Object>> index = JSON.toType(reader, Json.LIST_OF_MAPS_TYPE);
+            for (Map<String, Object> item : index) {
+                archive.put(Entry.fromMap(item));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось загрузить сетевой архив " + directory, e);
+        }
+        LOGGER.info("Загружен сетевой архив {}: {} ответов", directory, archive.entries.size());
+        return archive;
+    }
+
+    /**
+     * Сохраняет архив в каталог.
+     */
+    public synchronized void save() {
+        List<Map<String, Object>> index = new ArrayList<>();
+        entries.values().forEach(entry -> index.add(entry.toMap()));
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("index.json"), JSON.toJson(index).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить сетевой архив " + directory, e);
+        }
+        LOGGER.info("Сохранен сетевой архив {}: {} ответов", directory, index.size());
+    }
+
+    /**
+     * Ищет ответ по методу и полному URL запроса.
+     *
+     * @param method HTTP-метод
+     * @param url полный URL запроса
+     * @return ответ из архива, если он есть
+     */
+    public Optional<HttpResponse> find(String method, String url) {
+        return Optional.ofNullable(entries.get(method + " " + url)).map(this::toResponse);
+    }
+
+    /**
+     * Возвращает размер тела записанного ответа.
+     *
+     * @param method HTTP-метод
+     * @param url полный URL запроса
+     * @return размер тела в байтах, если ответ есть в архиве
+     */
+    public OptionalLong bodySize(String method, String url) {
+        Entry entry = entries.get(method + " " + url);
+        if (entry == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Files.size(directory.resolve(entry.bodyFile)));
+        } catch (IOException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Ищет ответ по методу, пути и строке запроса без учета хоста.
+     *
+     * @param method HTTP-метод
+     * @param pathAndQuery путь и строка запроса
+     * @return ответ из архива, если он есть
+     */
+    public Optional<HttpResponse> findByPath(String method, String pathAndQuery) {
+        return Optional.ofNullable(entriesByPath.get(method + " " + pathAndQuery)).map(this::toResponse);
+    }
+
+    /**
+     * Возвращает фильтр перехвата трафика, записывающий ответы в архив.
+     *
+     * @return фильтр записи
+     */
+    public Filter recordingFilter() {
+        return next -> request -> {
+            HttpResponse response = next.execute(request);
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+            try {
+                record(request, response, body);
+            } catch (UncheckedIOException e) {
+                LOGGER.warn("Не удалось записать ответ {}", request.getUri(), e);
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Возвращает фильтр перехвата трафика, отдающий ответы из архива.
+     * Запросы к локальному серверу воспроизведения ищутся по пути, остальные по полному URL.
+     * Запросы, которых нет в архиве, завершаются ответом 404 без обращения к сети.
+     *
+     * @param localBaseUrl базовый адрес локального сервера воспроизведения
+     * @return фильтр воспроизведения
+     */
+    public Filter replayingFilter(String localBaseUrl) {
+        return next -> request -> {
+            String method = request.getMethod().toString();
+            String url = request.getUri();
+            Optional<HttpResponse> response = url.startsWith(localBaseUrl)
+                    ? findByPath(method, "/" + url.substring(localBaseUrl.length()))
+                    : find(method, url);
+            return response.orElseGet(() -> {
+                LOGGER.debug("Ответа нет в сетевом архиве: {} {}", method, url);
+                return new HttpResponse().setStatus(404);
+            });
+        };
+    }
+
+    /**
+     * Добавляет ответ в архив, сохраняя тело на диск.
+     *
+     * @param request запрос
+     * @param response ответ
+     * @param body тело ответа
+     */
+    private void record(HttpRequest request, HttpResponse response, byte[] body) {
+        String bodyFile = "bodies/" + sha256(body) + ".bin";
+        Path bodyPath = directory.resolve(bodyFile);
+        try {
+            if (!Files.exists(bodyPath)) {
+                Files.createDirectories(bodyPath.getParent());
+                Files.write(bodyPath, body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<List<String>> headers = new ArrayList<>();
+        response.forEachHeader((name, value) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.add(Arrays.asList(name, value));
+            }
+        });
+        put(new Entry(request.getMethod().toString(), request.getUri(), response.getStatus(), headers, bodyFile));
+    }
+
+    /**
+     * Добавляет запись в индексы архива.
+     *
+     * @param entry запись архива
+     */
+    private void put(Entry entry) {
+        entries.put(entry.method + " " + entry.url, entry);
+        URI uri;
+        try {
+            uri = URI.create(entry.url);
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("URL не индексируется по пути: {}", entry.url);
+            return;
+        }
+        String pathAndQuery = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        entriesByPath.merge(entry.method + " " + pathAndQuery, entry,
+                (existing, added) -> isRedirect(existing) && !isRedirect(added) ? added : existing);
+    }
+
+    /**
+     * Проверяет, является ли ответ записи перенаправлением.
+     * При обращении по пути предпочитаются ответы с содержимым, а не перенаправления между хостами сайта.
+     *
+     * @param entry запись архива
+     * @return true, если код статуса 3xx
+     */
+    private static boolean isRedirect(Entry entry) {
+        return entry.status >= 300 && entry.status < 400;
+    }
+
+    /**
+     * Создает ответ из записи архива.
+     *
+     * @param entry запись архива
+     * @return ответ
+     */
+    private HttpResponse toResponse(Entry entry) {
+        HttpResponse response = new HttpResponse().setStatus(entry.status);
+        entry.headers.forEach(header -> response.addHeader(header.get(0), header.get(1)));
+        try {
+            response.setContent(Contents.bytes(Files.readAllBytes(directory.resolve(entry.bodyFile))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return response;
+    }
+
+    /**
+     * Вычисляет SHA-256 хеш содержимого.
+     *
+     * @param content содержимое
+     * @return хеш в шестнадцатеричном виде
+     */
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Запись архива: запрос и описание ответа на него.
+     */
+    private static final class Entry {
+
+        /**
+         * HTTP-метод запроса.
+         */
+        private final String method;
+
+        /**
+         * Полный URL запроса.
+         */
+        private final String url;
+
+        /**
+         * Код статуса ответа.
+         */
+        private final int status;
+
+        /**
+         * Заголовки ответа в виде пар [имя, значение].
+         */
+        private final List<List<String>> headers;
+
+        /**
+         * Путь к файлу тела ответа относительно каталога архива.
+         */
+        private final String bodyFile;
+
+        /**
+         * Конструктор записи архива.
+         *
+         * @param method HTTP-метод запроса
+         * @param url полный URL запроса
+         * @param status код статуса ответа
+         * @param headers заголовки ответа
+         * @param bodyFile путь к файлу тела ответа
+         */
+        private Entry(String method, String url, int status, List<List<String>> headers, String bodyFile) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.headers = headers;
+            this.bodyFile = bodyFile;
+        }
+
+        /**
+         * Создает запись из элемента файла index.json.
+         *
+         * @param map элемент файла index.json
+         * @return запись архива
+         */
+        @SuppressWarnings("unchecked")
+        private static Entry fromMap(Map<String, Object> map) {
+            return new Entry((String) map.get("method"), (String) map.get("url"),
+                    ((Number) map.get("status")).intValue(),
+                    (List<List<String>>) map.get("headers"), (String) map.get("body"));
+        }
+
+        /**
+         * Преобразует запись в элемент файла index.json.
+         *
+         * @return элемент файла index.json
+         */
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("method", method);
+            map.put("url", url);
+            map.put("status", status);
+            map.put("headers", headers);
+            map.put("body", bodyFile);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bellintegrator.network;
+
+/**
+ * Перечисление NetworkMode определяет, откуда браузер получает ответы сайта.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum NetworkMode {
+
+    /**
+     * Ответы приходят с живого сайта.
+     */
+    LIVE,
+
+    /**
+     * Ответы приходят с живого сайта и записываются в архив.
+     */
+    RECORD,
+
+    /**
+     * Ответы отдаются из архива без обращения к сети.
+     */
+    REPLAY
+}
@@ -0,0 +1,213 @@
+package com.bellintegrator.network;
+
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.Reports;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Класс NetworkStand подменяет сайт Citilink записанной копией для прогонов без сети.
+ * В режиме RECORD ответы, полученные браузером, записываются в сетевой архив.
+ * В режиме REPLAY архив раздается локальным сервером, citilink.url перенаправляется на него,
+ * а запросы браузера к остальным хостам отдаются из архива через перехватчик DevTools.
+ * Перед записью и воспроизведением запросы проходят через блокировщик ненужных ресурсов network.block.*.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class NetworkStand {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkStand.class);
+
+    /**
+     * Блокировщики запросов по экземплярам WebDriver.
+     */
+    private static final Map<WebDriver, RequestBlocker> BLOCKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Суммарная статистика блокировки за прогон.
+     */
+    private static final Map<String, Long> BLOCKING_TOTALS = new LinkedHashMap<>();
+
+    /**
+     * Текущий режим работы с сетью.
+     */
+    private static NetworkMode mode = NetworkMode.LIVE;
+
+    /**
+     * Сетевой архив режимов RECORD и REPLAY.
+     */
+    private static NetworkArchive archive;
+
+    /**
+     * Локальный сервер режима REPLAY.
+     */
+    private static ReplayServer server;
+
+    /**
+     * Оценка размера заблокированных ресурсов по HEAD-запросам.
+     */
+    private static ContentLengthProbe probe;
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private NetworkStand() {
+    }
+
+    /**
+     * Подготавливает архив и сервер воспроизведения согласно network.mode. Повторные вызовы ничего не делают.
+     */
+    public static synchronized void start() {
+        if (archive != null) {
+            return;
+        }
+        mode = Properties.testsProperties.networkMode();
+        if (mode == NetworkMode.LIVE) {
+            return;
+        }
+        if (mode == NetworkMode.RECORD) {
+            archive = new NetworkArchive(Paths.get(Properties.testsProperties.networkArchiveDir()));
+            LOGGER.info("Запись сетевого архива в {}", Properties.testsProperties.networkArchiveDir());
+            return;
+        }
+        archive = NetworkArchive.load(Paths.get(Properties.testsProperties.networkArchiveDir()));
+        server = new ReplayServer(archive);
+        Properties.testsProperties.setProperty("citilink.url", server.getBaseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+
+    /**
+     * Подключает к браузеру перехватчик трафика: блокировщик ресурсов и фильтр текущего режима.
+     *
+     * @param driver экземпляр WebDriver с поддержкой DevTools
+     */
+    public static synchronized void attach(WebDriver driver) {
+        Filter filter = null;
+        if (mode == NetworkMode.RECORD) {
+            filter = archive.recordingFilter();
+        } else if (mode == NetworkMode.REPLAY) {
+            filter = archive.replayingFilter(server.getBaseUrl());
+        }
+        if (Properties.testsProperties.networkBlockEnabled()) {
+            Set<ResourceType> blockedTypes = EnumSet.noneOf(ResourceType.class);
+            blockedTypes.addAll(Properties.testsProperties.networkBlockResourceTypes());
+            RequestBlocker blocker = new RequestBlocker(blockedTypes,
+                    Properties.testsProperties.networkBlockDenyPatterns(),
+                    Properties.testsProperties.networkBlockAllowPatterns(),
+                    NetworkStand::archivedSize,
+                    mode != NetworkMode.REPLAY && Properties.testsProperties.networkBlockSizeProbe()
+                            ? probe()::size : null,
+                    Properties.testsProperties.networkBlockSizeProbeTimeoutMillis());
+            BLOCKERS.put(driver, blocker);
+            filter = filter == null ? blocker.filter(false) : blocker.filter(true).andThen(filter);
+        }
+        if (filter != null) {
+            new NetworkInterceptor(driver, filter);
+        }
+    }
+
+    /**
+     * Возвращает размер ответа на заблокированный запрос из сетевого архива.
+     *
+     * @param method HTTP-метод
+     * @param url URL запроса
+     * @return размер ответа или пустое значение, если ответа в архиве нет
+     */
+    private static OptionalLong archivedSize(String method, String url) {
+        return archive == null ? OptionalLong.empty() : archive.bodySize(method, url);
+    }
+
+    /**
+     * Возвращает оценку размера по HEAD-запросам, создавая ее при первом обращении.
+     *
+     * @return оценка размера
+     */
+    private static synchronized ContentLengthProbe probe() {
+        if (probe == null) {
+            probe = new ContentLengthProbe(Properties.testsProperties.networkBlockSizeProbeTimeoutMillis());
+        }
+        return probe;
+    }
+
+    /**
+     * Возвращает статистику блокировки запросов браузера с момента предыдущего вызова
+     * и добавляет ее к итогам прогона.
+     *
+     * @param driver экземпляр WebDriver
+     * @return статистика блокировки или пустая карта, если блокировка выключена
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> takeBlockingStatistics(WebDriver driver) {
+        RequestBlocker blocker = BLOCKERS.get(driver);
+        if (blocker == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> statistics = blocker.takeStatistics();
+        synchronized (BLOCKING_TOTALS) {
+            BLOCKING_TOTALS.merge("blockedRequests", (Long) statistics.get("blockedRequests"), Long::sum);
+            BLOCKING_TOTALS.merge("bytesSaved", (Long) statistics.get("bytesSaved"), Long::sum);
+            BLOCKING_TOTALS.merge("unknownSizeRequests", (Long) statistics.get("unknownSizeRequests"), Long::sum);
+            ((Map<String, Long>) statistics.get("blockedByType")).forEach(
+                    (type, count) -> BLOCKING_TOTALS.merge("blocked." + type, count, Long::sum));
+        }
+        return statistics;
+    }
+
+    /**
+     * Выводит итоги блокировки запросов в лог и записывает их в файл отчета blocked-requests.json.
+     */
+    public static void reportBlocking() {
+        if (!Properties.testsProperties.networkBlockEnabled()) {
+            return;
+        }
+        Map<String, Long> totals;
+        synchronized (BLOCKING_TOTALS) {
+            totals = new LinkedHashMap<>(BLOCKING_TOTALS);
+        }
+        LOGGER.info("Блокировка запросов: {}", totals);
+        Reports.writeJson("blocked-requests.json", totals);
+    }
+
+    /**
+     * Сохраняет архив, если прогон выполнялся в режиме RECORD.
+     */
+    public static synchronized void save() {
+        if (mode == NetworkMode.RECORD) {
+            archive.save();
+        }
+    }
+
+    /**
+     * Возвращает текущий режим работы с сетью.
+     *
+     * @return режим работы с сетью
+     */
+    public static NetworkMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Возвращает базовый адрес локального сервера воспроизведения.
+     *
+     * @return адрес сервера или null, если режим не REPLAY
+     */
+    public static String getReplayBaseUrl() {
+        return server == null ? null : server.getBaseUrl();
+    }
+}
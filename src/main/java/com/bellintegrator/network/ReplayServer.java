@@ -0,0 +1,114 @@
+package com.bellintegrator.network;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс ReplayServer раздает ответы сетевого архива по HTTP на локальном адресе.
+ * Используется клиентами без браузера, которым нужен тот же записанный сайт, что и браузеру.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class ReplayServer implements AutoCloseable {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayServer.class);
+
+    /**
+     * Сетевой архив.
+     */
+    private final NetworkArchive archive;
+
+    /**
+     * HTTP-сервер.
+     */
+    private final HttpServer server;
+
+    /**
+     * Пул потоков обработки запросов.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Запускает сервер на свободном порту локального адреса.
+     *
+     * @param archive сетевой архив
+     */
+    public ReplayServer(NetworkArchive archive) {
+        this.archive = archive;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить сервер воспроизведения", e);
+        }
+        this.executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "replay-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info("Сервер воспроизведения запущен: {}", getBaseUrl());
+    }
+
+    /**
+     * Возвращает базовый адрес сервера.
+     *
+     * @return адрес вида http://127.0.0.1:порт/
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Отдает ответ из архива по пути и строке запроса или 404, если ответа нет.
+     *
+     * @param exchange обмен HTTP
+     * @throws IOException при ошибке записи ответа
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String pathAndQuery = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        Optional<HttpResponse> response = archive.findByPath(exchange.getRequestMethod(), pathAndQuery);
+        try {
+            if (!response.isPresent()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = Contents.bytes(response.get().getContent());
+            response.get().forEachHeader((name, value) -> exchange.getResponseHeaders().add(name, value));
+            exchange.sendResponseHeaders(response.get().getStatus(), body.length == 0 ? -1 : body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Останавливает сервер.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
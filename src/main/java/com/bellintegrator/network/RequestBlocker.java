@@ -0,0 +1,252 @@
+package com.bellintegrator.network;
+
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Класс RequestBlocker отклоняет запросы браузера, не влияющие на проверки тестов:
+ * изображения, шрифты, медиа и сторонние счетчики. Запрос блокируется, если его тип входит
+ * в список блокируемых или URL совпадает с запрещающим шаблоном, и при этом URL не совпадает
+ * с разрешающим шаблоном. HTML-документы не блокируются никогда.
+ * Экземпляр создается на каждый браузер и считает заблокированные запросы с момента последнего снятия статистики.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class RequestBlocker {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestBlocker.class);
+
+    /**
+     * Блокируемые типы ресурсов.
+     */
+    private final Set<ResourceType> blockedTypes;
+
+    /**
+     * Запрещающие шаблоны URL.
+     */
+    private final List<Pattern> denyPatterns;
+
+    /**
+     * Разрешающие шаблоны URL, имеющие приоритет над остальными правилами.
+     */
+    private final List<Pattern> allowPatterns;
+
+    /**
+     * Размер ответа по методу и URL из сетевого архива; пустое значение, если ответа в архиве нет.
+     */
+    private final BiFunction<String, String, OptionalLong> archivedSize;
+
+    /**
+     * Оценка размера ответа запросом к серверу для ресурсов, которых нет в архиве, или null, если она отключена.
+     * К адресам, совпадающим с запрещающими шаблонами (сторонние счетчики), не применяется: иначе тест обращался бы
+     * к тем серверам, запросы к которым блокирует.
+     */
+    private final BiFunction<String, String, CompletableFuture<OptionalLong>> sizeProbe;
+
+    /**
+     * Максимальное время ожидания незавершенных оценок размера при снятии статистики в миллисекундах.
+     */
+    private final long sizeTimeoutMillis;
+
+    /**
+     * Незавершенные оценки размера ответов на заблокированные запросы.
+     */
+    private final Set<CompletableFuture<?>> pendingSizes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Количество заблокированных запросов по типам ресурсов.
+     */
+    private final Map<ResourceType, AtomicLong> blockedCounts = new EnumMap<>(ResourceType.class);
+
+    /**
+     * Суммарный известный размер ответов на заблокированные запросы.
+     */
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Количество заблокированных запросов, размер ответа на которые неизвестен.
+     */
+    private final AtomicLong unknownSizeCount = new AtomicLong();
+
+    /**
+     * Конструктор блокировщика.
+     *
+     * @param blockedTypes блокируемые типы ресурсов
+     * @param denyPatterns запрещающие шаблоны URL, символ * соответствует любой подстроке
+     * @param allowPatterns разрешающие шаблоны URL, символ * соответствует любой подстроке
+     * @param archivedSize размер ответа по методу и URL из сетевого архива
+     * @param sizeProbe оценка размера ответа запросом к серверу, завершающаяся асинхронно, или null
+     * @param sizeTimeoutMillis максимальное время ожидания незавершенных оценок размера при снятии статистики
+     */
+    public RequestBlocker(Set<ResourceType> blockedTypes, List<String> denyPatterns, List<String> allowPatterns,
+                          BiFunction<String, String, OptionalLong> archivedSize,
+                          BiFunction<String, String, CompletableFuture<OptionalLong>> sizeProbe,
+                          long sizeTimeoutMillis) {
+        this.blockedTypes = blockedTypes;
+        this.denyPatterns = compile(denyPatterns);
+        this.allowPatterns = compile(allowPatterns);
+        this.archivedSize = archivedSize;
+        this.sizeProbe = sizeProbe;
+        this.sizeTimeoutMillis = sizeTimeoutMillis;
+        for (ResourceType type : ResourceType.values()) {
+            blockedCounts.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Возвращает фильтр перехвата трафика, отвечающий на блокируемые запросы пустым ответом 204.
+     * Если за блокировщиком нет фильтра записи или воспроизведения, разрешенные запросы продолжаются
+     * браузером без изменений: иначе перехватчик DevTools загружал бы тело каждого ответа
+     * и отдавал его браузеру из Java.
+     *
+     * @param downstream true, если за блокировщиком следует фильтр записи или воспроизведения
+     * @return фильтр блокировки
+     */
+    public Filter filter(boolean downstream) {
+        return next -> request -> {
+            ResourceType type = ResourceType.of(request);
+            String url = request.getUri();
+            if (!isBlocked(type, url)) {
+                return downstream ? next.execute(request) : NetworkInterceptor.PROCEED_WITH_REQUEST;
+            }
+            blockedCounts.get(type).incrementAndGet();
+            CompletableFuture<OptionalLong> size = size(request.getMethod().toString(), url);
+            pendingSizes.add(size);
+            size.whenComplete((value, error) -> {
+                if (value != null && value.isPresent()) {
+                    bytesSaved.addAndGet(value.getAsLong());
+                } else {
+                    unknownSizeCount.incrementAndGet();
+                }
+                pendingSizes.remove(size);
+            });
+            return new HttpResponse().setStatus(204);
+        };
+    }
+
+    /**
+     * Оценивает размер ответа на заблокированный запрос: по сетевому архиву, а если в архиве ответа нет,
+     * URL не совпадает с запрещающим шаблоном и оценка запросом к серверу включена, - запросом к серверу.
+     *
+     * @param method HTTP-метод
+     * @param url URL запроса
+     * @return размер ответа или пустое значение, если он неизвестен
+     */
+    private CompletableFuture<OptionalLong> size(String method, String url) {
+        OptionalLong archived = archivedSize.apply(method, url);
+        if (archived.isPresent() || sizeProbe == null || matches(denyPatterns, url)) {
+            return CompletableFuture.completedFuture(archived);
+        }
+        return sizeProbe.apply(method, url);
+    }
+
+    /**
+     * Проверяет, должен ли запрос быть заблокирован.
+     *
+     * @param type тип ресурса
+     * @param url URL запроса
+     * @return true, если запрос блокируется
+     */
+    boolean isBlocked(ResourceType type, String url) {
+        if (type == ResourceType.DOCUMENT || matches(allowPatterns, url)) {
+            return false;
+        }
+        return blockedTypes.contains(type) || matches(denyPatterns, url);
+    }
+
+    /**
+     * Возвращает статистику блокировки с момента предыдущего вызова и обнуляет счетчики.
+     * Перед этим ожидает незавершенных оценок размера, чтобы сэкономленные байты попали в статистику своего теста.
+     *
+     * @return количество заблокированных запросов по типам, всего и сэкономленные байты
+     */
+    public Map<String, Object> takeStatistics() {
+        awaitSizes();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        Map<String, Long> byType = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<ResourceType, AtomicLong> entry : blockedCounts.entrySet()) {
+            long count = entry.getValue().getAndSet(0);
+            if (count > 0) {
+                byType.put(entry.getKey().name(), count);
+                total += count;
+            }
+        }
+        statistics.put("blockedRequests", total);
+        statistics.put("blockedByType", byType);
+        statistics.put("bytesSaved", bytesSaved.getAndSet(0));
+        statistics.put("unknownSizeRequests", unknownSizeCount.getAndSet(0));
+        return statistics;
+    }
+
+    /**
+     * Ожидает незавершенных оценок размера не дольше sizeTimeoutMillis.
+     */
+    private void awaitSizes() {
+        if (pendingSizes.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pendingSizes.toArray(new CompletableFuture<?>[0]))
+                    .get(sizeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.debug("Не дождались оценки размера заблокированных запросов, осталось {}", pendingSizes.size());
+        }
+    }
+
+    /**
+     * Проверяет, совпадает ли URL с одним из шаблонов.
+     *
+     * @param patterns шаблоны
+     * @param url URL запроса
+     * @return true, если есть совпадение
+     */
+    private static boolean matches(List<Pattern> patterns, String url) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Преобразует шаблоны со звездочкой в регулярные выражения, пропуская пустые строки.
+     *
+     * @param globs шаблоны со звездочкой
+     * @return регулярные выражения
+     */
+    private static List<Pattern> compile(List<String> globs) {
+        return globs.stream()
+                .map(String::trim)
+                .filter(glob -> !glob.isEmpty())
+                .map(glob -> Pattern.compile(
+                        ("\\Q" + glob + "\\E").replace("*", "\\E.*\\Q"), Pattern.CASE_INSENSITIVE))
+                .collect(Collectors.toList());
+    }
+}
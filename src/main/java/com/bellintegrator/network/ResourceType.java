@@ -0,0 +1,116 @@
+package com.bellintegrator.network;
+
+import org.openqa.selenium.remote.http.HttpRequest;
+import java.util.Locale;
+
+/**
+ * Перечисление ResourceType описывает тип ресурса, запрашиваемого браузером.
+ * Тип определяется по заголовку Sec-Fetch-Dest, а при его отсутствии по расширению пути и заголовку Accept.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum ResourceType {
+
+    /**
+     * HTML-документ или фрейм.
+     */
+    DOCUMENT,
+
+    /**
+     * Таблица стилей.
+     */
+    STYLESHEET,
+
+    /**
+     * Скрипт.
+     */
+    SCRIPT,
+
+    /**
+     * Изображение.
+     */
+    IMAGE,
+
+    /**
+     * Шрифт.
+     */
+    FONT,
+
+    /**
+     * Аудио или видео.
+     */
+    MEDIA,
+
+    /**
+     * Запрос fetch или XHR.
+     */
+    XHR,
+
+    /**
+     * Прочие запросы.
+     */
+    OTHER;
+
+    /**
+     * Определяет тип ресурса запроса.
+     *
+     * @param request запрос браузера
+     * @return тип ресурса
+     */
+    public static ResourceType of(HttpRequest request) {
+        String destination = request.getHeader("Sec-Fetch-Dest");
+        if (destination != null) {
+            switch (destination.toLowerCase(Locale.ROOT)) {
+                case "document":
+                case "iframe":
+                case "frame":
+                    return DOCUMENT;
+                case "style":
+                    return STYLESHEET;
+                case "script":
+                case "worker":
+                case "sharedworker":
+                case "serviceworker":
+                    return SCRIPT;
+                case "image":
+                    return IMAGE;
+                case "font":
+                    return FONT;
+                case "audio":
+                case "video":
+                case "track":
+                    return MEDIA;
+                case "empty":
+                    return XHR;
+                default:
+                    return OTHER;
+            }
+        }
+        String path = request.getUri().toLowerCase(Locale.ROOT).replaceAll("[?#].*$", "");
+        if (path.matches(".*\\.(png|jpe?g|gif|webp|avif|svg|ico|bmp)$")) {
+            return IMAGE;
+        }
+        if (path.matches(".*\\.(woff2?|ttf|otf|eot)$")) {
+            return FONT;
+        }
+        if (path.matches(".*\\.(mp4|webm|ogg|mp3|m3u8)$")) {
+            return MEDIA;
+        }
+        if (path.endsWith(".css")) {
+            return STYLESHEET;
+        }
+        if (path.endsWith(".js")) {
+            return SCRIPT;
+        }
+        String accept = request.getHeader("Accept");
+        if (accept != null && accept.startsWith("image/")) {
+            return IMAGE;
+        }
+        if (accept != null && accept.startsWith("text/html")) {
+            return DOCUMENT;
+        }
+        return OTHER;
+    }
+}
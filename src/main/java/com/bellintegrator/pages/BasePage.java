@@ -1,7 +1,12 @@
 package com.bellintegrator.pages;
 
+import com.bellintegrator.metrics.StepTimings;
+import com.bellintegrator.performance.PagePerformance;
+import com.bellintegrator.session.SessionState;
+import com.bellintegrator.webdriver.LaunchProfile;
+import com.codeborne.selenide.WebDriverRunner;
 import io.qameta.allure.Step;
-import static com.codeborne.selenide.Selenide.page;
+import java.util.function.Supplier;
 
 /**
  * Абстрактный класс BasePage служит базовым классом для всех страниц приложения.
@@ -15,6 +20,8 @@ public abstract class BasePage {
 
     /**
      * Открывает указанную URL-адрес и возвращает экземпляр страницы, представляющей этот URL.
+     * Экземпляр создается один раз, через PageFactory. Показатели загрузки страницы сверяются
+     * с ее бюджетом производительности, длительность загрузки попадает в статистику холодных и повторных загрузок.
      *
      * @param url URL-адрес страницы, которую необходимо открыть
      * @param typeNextPage класс страницы, который необходимо создать после открытия URL
@@ -23,7 +30,45 @@ public abstract class BasePage {
      */
     @Step("Открываем сайт {url}")
     public static <T extends BasePage> T open(String url, Class<T> typeNextPage) {
-        com.codeborne.selenide.Selenide.open(url, typeNextPage);
-        return typeNextPage.cast(page(typeNextPage));
+        long start = System.nanoTime();
+        com.codeborne.selenide.Selenide.open(url);
+        LaunchProfile.recordPageLoad(WebDriverRunner.getWebDriver(), System.nanoTime() - start);
+        PagePerformance.measure(typeNextPage);
+        return PageFactory.create(typeNextPage);
+    }
+
+    /**
+     * Открывает страницу, до которой тест обычно доходит подготовительными действиями через интерфейс,
+     * восстановлением сохраненной сессии. Если подходящего снимка сессии нет, выполняет подготовительные действия
+     * и сохраняет состояние браузера для следующих тестов.
+     *
+     * @param sessionKey ключ снимка сессии
+     * @param url URL-адрес, с которого начинаются подготовительные действия
+     * @param typeNextPage класс страницы, на которой заканчиваются подготовительные действия
+     * @param warmUp подготовительные действия, начинающиеся с открытия url
+     * @param <T> тип страницы, наследуемый от BasePage
+     * @return экземпляр страницы типа T
+     */
+    @Step("Открываем сайт {url} с сохраненной сессией {sessionKey}")
+    public static <T extends BasePage> T openWithSession(String sessionKey, String url, Class<T> typeNextPage,
+                                                         Supplier<T> warmUp) {
+        if (SessionState.restore(sessionKey, url)) {
+            PagePerformance.measure(typeNextPage);
+            return PageFactory.create(typeNextPage);
+        }
+        long start = System.nanoTime();
+        T nextPage = warmUp.get();
+        StepTimings.record("session.warmup", System.nanoTime() - start);
+        SessionState.capture(sessionKey, url);
+        return nextPage;
+    }
+
+    /**
+     * Дожидается готовности содержимого страницы после перехода. По умолчанию страница не задает ожидания.
+     *
+     * @return true, если ожидание выполнено, false, если страница его не задает
+     */
+    public boolean awaitReady() {
+        return false;
     }
 }
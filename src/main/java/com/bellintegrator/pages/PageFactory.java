@@ -0,0 +1,115 @@
+package com.bellintegrator.pages;
+
+import com.codeborne.selenide.Selenide;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Класс PageFactory создает page object при переходе на страницу. Конструктор и признак наличия полей
+ * с аннотациями FindBy определяются один раз на класс страницы и кешируются, поэтому переход не повторяет
+ * поиск конструктора и обход полей, как Selenide.page. Поля с аннотациями FindBy заполняются через
+ * Selenide.page; страницы без них создаются одним вызовом конструктора.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class PageFactory {
+
+    /**
+     * Сведения о классах страниц, вычисляемые при первом создании страницы класса.
+     */
+    private static final ClassValue<PageMetadata> METADATA = new ClassValue<PageMetadata>() {
+        @Override
+        protected PageMetadata computeValue(Class<?> type) {
+            return new PageMetadata(type);
+        }
+    };
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private PageFactory() {
+    }
+
+    /**
+     * Создает page object текущей страницы.
+     *
+     * @param type класс страницы
+     * @param <T> тип страницы, наследуемый от BasePage
+     * @return экземпляр страницы типа T
+     */
+    public static <T extends BasePage> T create(Class<T> type) {
+        PageMetadata metadata = METADATA.get(type);
+        T page = type.cast(metadata.newInstance());
+        return metadata.hasFindByFields ? Selenide.page(page) : page;
+    }
+
+    /**
+     * Кешированные сведения о классе страницы.
+     */
+    private static final class PageMetadata {
+
+        /**
+         * Конструктор без параметров.
+         */
+        private final Constructor<?> constructor;
+
+        /**
+         * Признак наличия полей, заполняемых Selenide по аннотациям FindBy, FindBys и FindAll.
+         */
+        private final boolean hasFindByFields;
+
+        /**
+         * Находит конструктор без параметров и поля с аннотациями FindBy в классе страницы и его предках.
+         *
+         * @param type класс страницы
+         */
+        private PageMetadata(Class<?> type) {
+            try {
+                this.constructor = type.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("У класса страницы нет конструктора без параметров: "
+                        + type.getName(), e);
+            }
+            this.constructor.setAccessible(true);
+            boolean found = false;
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && (field.isAnnotationPresent(FindBy.class)
+                            || field.isAnnotationPresent(FindBys.class) || field.isAnnotationPresent(FindAll.class))) {
+                        found = true;
+                    }
+                }
+            }
+            this.hasFindByFields = found;
+        }
+
+        /**
+         * Создает экземпляр страницы.
+         *
+         * @return экземпляр страницы
+         */
+        private Object newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Не удалось создать страницу " + constructor.getName(), cause);
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException("Не удалось создать страницу " + constructor.getName(), e);
+            }
+        }
+    }
+}
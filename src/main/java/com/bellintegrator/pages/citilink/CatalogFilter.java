@@ -0,0 +1,180 @@
+package com.bellintegrator.pages.citilink;
+
+import com.bellintegrator.properties.Properties;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Класс CatalogFilter описывает состояние фильтров каталога Citilink: раздел каталога, бренды и прочие фасеты.
+ * По нему строится адрес отфильтрованного каталога, чтобы тест, который проверяет не сами фильтры,
+ * открывал нужное состояние сразу, без кликов по блокам фильтров. Фасеты передаются в параметре запроса
+ * catalog.filter.query.parameter через разделитель catalog.filter.token.separator; бренд записывается
+ * в нижнем регистре, остальные фасеты - в виде "имя.значение".
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class CatalogFilter {
+
+    /**
+     * Путь раздела каталога, например /catalog/smartfony/.
+     */
+    private final String categoryPath;
+
+    /**
+     * Выбранные бренды.
+     */
+    private final Set<String> brands;
+
+    /**
+     * Прочие фасеты.
+     */
+    private final Set<String> facets;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param builder построитель фильтра
+     */
+    private CatalogFilter(Builder builder) {
+        this.categoryPath = builder.categoryPath;
+        this.brands = Collections.unmodifiableSet(new LinkedHashSet<>(builder.brands));
+        this.facets = Collections.unmodifiableSet(new LinkedHashSet<>(builder.facets));
+    }
+
+    /**
+     * Создает построитель фильтра для раздела каталога.
+     *
+     * @param categoryPath путь раздела каталога
+     * @return построитель фильтра
+     */
+    public static Builder category(String categoryPath) {
+        return new Builder(categoryPath);
+    }
+
+    /**
+     * Возвращает путь раздела каталога.
+     *
+     * @return путь раздела
+     */
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+
+    /**
+     * Возвращает выбранные бренды.
+     *
+     * @return бренды
+     */
+    public Set<String> getBrands() {
+        return brands;
+    }
+
+    /**
+     * Возвращает прочие фасеты.
+     *
+     * @return фасеты в виде "имя.значение"
+     */
+    public Set<String> getFacets() {
+        return facets;
+    }
+
+    /**
+     * Строит адрес отфильтрованного каталога.
+     *
+     * @param baseUrl адрес сайта
+     * @return адрес каталога с фильтрами
+     */
+    public String toUrl(String baseUrl) {
+        String url = URI.create(baseUrl).resolve(categoryPath).toString();
+        List<String> tokens = new ArrayList<>();
+        brands.forEach(brand -> tokens.add(brand.trim().toLowerCase(Locale.ROOT)));
+        tokens.addAll(facets);
+        if (tokens.isEmpty()) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + Properties.testsProperties.catalogFilterQueryParameter() + "="
+                + URLEncoder.encode(String.join(Properties.testsProperties.catalogFilterTokenSeparator(), tokens),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Возвращает строковое представление фильтра для имени шага отчета.
+     *
+     * @return описание фильтра
+     */
+    @Override
+    public String toString() {
+        return categoryPath + " бренды " + brands + " фасеты " + facets;
+    }
+
+    /**
+     * Построитель фильтра каталога.
+     */
+    public static final class Builder {
+
+        /**
+         * Путь раздела каталога.
+         */
+        private final String categoryPath;
+
+        /**
+         * Выбранные бренды.
+         */
+        private final Set<String> brands = new LinkedHashSet<>();
+
+        /**
+         * Прочие фасеты.
+         */
+        private final Set<String> facets = new LinkedHashSet<>();
+
+        /**
+         * Конструктор построителя.
+         *
+         * @param categoryPath путь раздела каталога
+         */
+        private Builder(String categoryPath) {
+            this.categoryPath = categoryPath;
+        }
+
+        /**
+         * Добавляет бренд.
+         *
+         * @param brand название бренда, как в блоке фильтров "Бренд"
+         * @return текущий построитель
+         */
+        public Builder brand(String brand) {
+            brands.add(brand);
+            return this;
+        }
+
+        /**
+         * Добавляет фасет.
+         *
+         * @param name имя фасета
+         * @param value значение фасета
+         * @return текущий построитель
+         */
+        public Builder facet(String name, String value) {
+            facets.add(name + "." + value);
+            return this;
+        }
+
+        /**
+         * Создает фильтр.
+         *
+         * @return фильтр каталога
+         */
+        public CatalogFilter build() {
+            return new CatalogFilter(this);
+        }
+    }
+}
@@ -1,8 +1,23 @@
 package com.bellintegrator.pages.citilink;
 
+import com.bellintegrator.locators.CitilinkLocators;
 import com.bellintegrator.pages.BasePage;
+import com.bellintegrator.performance.PerformanceBudget;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.waits.AdaptiveTimeouts;
+import com.bellintegrator.waits.DomSettleWait;
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 import com.codeborne.selenide.*;
+import com.codeborne.selenide.ex.UIAssertionError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static com.bellintegrator.conditions.TextsMatch.allTextsContain;
+import static com.codeborne.selenide.CollectionCondition.exactTexts;
 import static com.codeborne.selenide.CollectionCondition.sizeGreaterThan;
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.*;
@@ -10,20 +25,30 @@ import static com.codeborne.selenide.WebDriverConditions.urlContaining;
 
 /**
  * Класс CitilinkCatalogPage представляет страницу каталога сайта Citilink и включает методы
- * для взаимодействия с элементами страницы.
+ * для взаимодействия с элементами страницы. Таймауты ожиданий подбираются по прошлым прогонам AdaptiveTimeouts.
  *
  * @version 1.0
  * @since 2024-06-22
  * @author Vergentev Tikhon
  */
+@PerformanceBudget(ttfbMillis = 1500, domContentLoadedMillis = 5000, loadMillis = 10000, lcpMillis = 4000,
+        elapsedMillis = 5000)
 public class CitilinkCatalogPage extends BasePage {
 
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CitilinkCatalogPage.class);
+
+    /**
+     * CSS-селектор карточек продуктов блока с результатами, за изменениями которых следит ожидание загрузки.
+     */
+    private static final String RESULTS_BLOCK = CitilinkLocators.RESULTS_BLOCK.expression();
+
     /**
      * Коллекция элементов Selenide всех продуктов в результирующем блоке.
      */
-    private final ElementsCollection allProductTitlesInResultBlock =
-            $$x("//div[@data-meta-name='ProductVerticalSnippet']" +
-                              "//a[@data-meta-name='Snippet__title']");
+    private final ElementsCollection allProductTitlesInResultBlock = $$(CitilinkLocators.PRODUCT_TITLES.by());
 
 
     /**
@@ -34,10 +59,37 @@ public class CitilinkCatalogPage extends BasePage {
      */
     @Step("Проверка, что текущий URL содержит {urlFragment}")
     public CitilinkCatalogPage shouldHaveUrlFragment(String urlFragment) {
-        webdriver().shouldHave(urlContaining(urlFragment));
+        AdaptiveTimeouts.await("catalog.urlFragment",
+                timeout -> webdriver().shouldHave(urlContaining(urlFragment), timeout));
         return this;
     }
 
+    /**
+     * Открывает каталог сразу в состоянии, заданном фильтром, минуя клики по блокам фильтров.
+     *
+     * @param baseUrl адрес сайта
+     * @param filter фильтр каталога
+     * @return объект CitilinkCatalogPage с загруженными результатами
+     */
+    @Step("Открываем каталог с фильтром {filter}")
+    public static CitilinkCatalogPage openFiltered(String baseUrl, CatalogFilter filter) {
+        CitilinkCatalogPage catalogPage = BasePage.open(filter.toUrl(baseUrl), CitilinkCatalogPage.class);
+        catalogPage.awaitReady();
+        return catalogPage;
+    }
+
+    /**
+     * Дожидается появления продуктов в результирующем блоке.
+     *
+     * @return true
+     */
+    @Override
+    public boolean awaitReady() {
+        AdaptiveTimeouts.await("catalog.products",
+                timeout -> allProductTitlesInResultBlock.shouldHave(sizeGreaterThan(0), timeout));
+        return true;
+    }
+
     /**
      * Кликает на кнопку в указанном блоке фильтров.
      *
@@ -47,8 +99,8 @@ public class CitilinkCatalogPage extends BasePage {
      */
     @Step("Кликаем {buttonNameInFilterBlock} у категории {filterBlockName} ")
     public CitilinkCatalogPage clickButtonInFilterBlock(String filterBlockName, String buttonNameInFilterBlock) {
-        SelenideElement filterBlockElement = getFilterBlockByName(filterBlockName)
-                .$x(".//button[text()='" + buttonNameInFilterBlock + "']");
+        SelenideElement filterBlockElement =
+                $(CitilinkLocators.FILTER_BLOCK_BUTTON.by(filterBlockName, buttonNameInFilterBlock));
         filterBlockElement.scrollTo();
         filterBlockElement.click(ClickOptions.usingJavaScript());
         return this;
@@ -65,6 +117,7 @@ public class CitilinkCatalogPage extends BasePage {
     public CitilinkCatalogPage chooseElementInFilterBlock(String filterBlockName, String elementName) {
         SelenideElement element = getAllElementsInFilterBlock(filterBlockName).findBy(text(elementName));
         element.scrollTo();
+        DomSettleWait.arm(RESULTS_BLOCK);
         element.click(ClickOptions.usingJavaScript());
         waitForResultsLoad();
         return this;
@@ -72,55 +125,113 @@ public class CitilinkCatalogPage extends BasePage {
 
     /**
      * Проверяет, что результирующие продукты на текущей странице содержат указанное имя продукта.
+     * Тексты всех названий забираются из браузера одним вызовом JavaScript.
      *
      * @param productName имя продукта, которое должно быть найдено
      */
     @Step("Проверка, что результирующие продукты содержат {productName} на просматриваемой странице")
     public void shouldHaveProductName(String productName) {
-        allProductTitlesInResultBlock.shouldHave(CollectionCondition.allMatch("All elements should contain text",
-                element -> element.getText().contains(productName))
-        );
+        AdaptiveTimeouts.await("catalog.productNames",
+                timeout -> allProductTitlesInResultBlock.shouldHave(allTextsContain(productName), timeout));
+    }
+
+    /**
+     * Возвращает названия продуктов, загруженных в результирующий блок.
+     *
+     * @return названия продуктов в порядке вывода
+     */
+    @Step("Собираем названия продуктов на просматриваемой странице")
+    public List<String> getProductTitles() {
+        AdaptiveTimeouts.await("catalog.products",
+                timeout -> allProductTitlesInResultBlock.shouldHave(sizeGreaterThan(0), timeout));
+        return allProductTitlesInResultBlock.texts();
+    }
+
+    /**
+     * Проверяет, что в результирующем блоке выведены ровно указанные продукты в том же порядке.
+     *
+     * @param productTitles ожидаемые названия продуктов
+     * @return текущий объект CitilinkCatalogPage
+     */
+    @Step("Проверка, что результирующие продукты совпадают с ожидаемыми")
+    public CitilinkCatalogPage shouldHaveProductTitles(List<String> productTitles) {
+        allProductTitlesInResultBlock.shouldHave(exactTexts(productTitles));
+        return this;
     }
 
     /**
      * Проверяет, что результирующие продукты содержат указанное имя продукта на всех доступных страницах.
+     * На каждой странице проверяются только продукты, догруженные после предыдущей проверки.
+     * Обход завершается, когда кнопка "Показать еще" пропадает или после клика по ней не появляется новых продуктов.
+     * Время загрузки и проверки каждой страницы прикладывается к отчету Allure.
      *
      * @param showMoreButtonName текст кнопки "Показать еще"
      * @param productName    имя продукта, которое должно быть найдено
      */
     @Step("Проверка, что результирующие продукты содержат {productName}")
     public void shouldHaveProductNameOnAllAvailablePages(String showMoreButtonName, String productName) {
+        List<String> pageTimings = new ArrayList<>();
+        int verifiedCount = 0;
+        long pageStart = System.nanoTime();
         do {
-            shouldHaveProductName(productName);
+            int offset = verifiedCount;
+            AdaptiveTimeouts.await("catalog.productNames", timeout ->
+                    allProductTitlesInResultBlock.shouldHave(allTextsContain(productName, offset), timeout));
+            int loadedCount = allProductTitlesInResultBlock.size();
+            pageTimings.add(String.format("Страница %d: продукты %d-%d, %d мс", pageTimings.size() + 1,
+                    verifiedCount + 1, loadedCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pageStart)));
+            verifiedCount = loadedCount;
+
             SelenideElement button = getButtonShowMoreInResultBlock(showMoreButtonName);
-            if (button != null) {
-                button.scrollTo();
-                button.click(ClickOptions.usingJavaScript());
-                waitForResultsLoad();
-            } else {
+            if (button == null) {
+                break;
+            }
+            pageStart = System.nanoTime();
+            button.scrollTo();
+            DomSettleWait.arm(RESULTS_BLOCK);
+            button.click(ClickOptions.usingJavaScript());
+            waitForResultsLoad();
+            if (!hasProductsAfter(verifiedCount)) {
+                LOGGER.warn("После клика на '{}' не появилось новых продуктов, проверено {}", showMoreButtonName, verifiedCount);
+                pageTimings.add("Новые продукты не появились, обход остановлен");
                 break;
             }
         } while (true);
+        Allure.addAttachment("Время загрузки страниц", "text/plain", String.join("\n", pageTimings), ".txt");
     }
 
     /**
-     * Ожидает загрузки элемента с результатами.
+     * Проверяет, что в результирующем блоке появились продукты сверх уже проверенных.
+     *
+     * @param verifiedCount количество уже проверенных продуктов
+     * @return true, если появились новые продукты; false, если за время ожидания их не появилось
      */
-    private void waitForResultsLoad() {
-        String fullXPath = "//div[contains(@class, '')]" +
-                           "[descendant::section[@data-meta-name='ProductListLayout__banners']]" +
-                           "[ancestor::div[@data-meta-name='ProductListLayout']]";
-        $$x(fullXPath).shouldHave(sizeGreaterThan(0));
+    private boolean hasProductsAfter(int verifiedCount) {
+        try {
+            AdaptiveTimeouts.await("catalog.moreProducts",
+                    timeout -> allProductTitlesInResultBlock.shouldHave(sizeGreaterThan(verifiedCount), timeout));
+            return true;
+        } catch (UIAssertionError e) {
+            return false;
+        }
     }
 
     /**
-     * Возвращает элемент блока фильтров по заданному имени блока фильтров.
+     * Ожидает обновления блока с результатами после действия, перед которым вызван DomSettleWait.arm:
+     * блок должен измениться, а сеть простаивать окно тишины wait.settle.quiet.millis.
+     * Таймаут ожидания подбирается AdaptiveTimeouts.
      *
-     * @param filterBlockName имя блока фильтров, по которому необходимо найти элемент
-     * @return элемент блока фильтров с заданным именем
+     * @throws AssertionError если блок не обновился за время ожидания
      */
-    private SelenideElement getFilterBlockByName(String filterBlockName) {
-        return $x("//div[@data-meta-value='" + filterBlockName + "']");
+    private void waitForResultsLoad() {
+        Duration quietWindow = Duration.ofMillis(Properties.testsProperties.settleQuietMillis());
+        Duration timeout = AdaptiveTimeouts.timeout("catalog.resultsLoad");
+        long start = System.nanoTime();
+        if (DomSettleWait.awaitSettled(quietWindow, timeout)) {
+            AdaptiveTimeouts.record("catalog.resultsLoad", System.nanoTime() - start);
+        } else {
+            throw new AssertionError("Блок с результатами не обновился за " + timeout.toMillis() + " мс");
+        }
     }
 
     /**
@@ -130,9 +241,7 @@ public class CitilinkCatalogPage extends BasePage {
      * @return коллекция элементов из блока фильтров
      */
     private ElementsCollection getAllElementsInFilterBlock(String filterBlockName) {
-        String xPath = ".//span[contains(text(),'')][preceding-sibling::span[input[@type='checkbox']]]" +
-                       "//span[contains(text(),'')]";
-        return getFilterBlockByName(filterBlockName).$$x(xPath).filter(visible);
+        return $$(CitilinkLocators.FILTER_BLOCK_ITEMS.by(filterBlockName)).filter(visible);
     }
 
     /**
@@ -142,7 +251,7 @@ public class CitilinkCatalogPage extends BasePage {
      * @return элемент кнопки "Показать еще", если она существует и видима, иначе null
      */
     private SelenideElement getButtonShowMoreInResultBlock(String showMoreButton) {
-        SelenideElement button = $$("button").findBy(exactText(showMoreButton));
+        SelenideElement button = $$(CitilinkLocators.BUTTON_WITH_TEXT.by(showMoreButton)).findBy(visible);
         return button.exists() ? button : null;
     }
 
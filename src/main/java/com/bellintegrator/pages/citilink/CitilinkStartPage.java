@@ -1,9 +1,12 @@
 package com.bellintegrator.pages.citilink;
 
+import com.bellintegrator.locators.CitilinkLocators;
 import com.bellintegrator.pages.BasePage;
-import com.codeborne.selenide.SelenideElement;
+import com.bellintegrator.pages.PageFactory;
+import com.bellintegrator.performance.PagePerformance;
+import com.bellintegrator.performance.PerformanceBudget;
 import io.qameta.allure.Step;
-import static com.codeborne.selenide.Condition.exactText;
+import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.*;
 
 /**
@@ -14,36 +17,37 @@ import static com.codeborne.selenide.Selenide.*;
  * @since 2024-06-22
  * author Vergentev Tikhon
  */
+@PerformanceBudget(ttfbMillis = 1500, domContentLoadedMillis = 5000, loadMillis = 10000, lcpMillis = 4000)
 public class CitilinkStartPage extends BasePage {
 
     /**
-     * Кликает на кнопку с заданным именем.
+     * Кликает на видимую кнопку с заданным именем.
      *
      * @param buttonName имя кнопки, на которую необходимо кликнуть
      * @return текущий объект CitilinkStartPage
      */
     @Step("Кликаем на кнопку {buttonName}")
     public CitilinkStartPage clickButton(String buttonName) {
-        $$("span").findBy(exactText(buttonName)).click();
+        $$(CitilinkLocators.SPAN_WITH_TEXT.by(buttonName)).findBy(visible).click();
         return this;
     }
 
     /**
-     * Наводит курсор на указанный раздел меню.
+     * Наводит курсор на видимый раздел меню с указанным именем.
      *
      * @param menuName имя раздела меню, на который необходимо навести курсор
      * @return текущий объект CitilinkStartPage
      */
     @Step("Наводим курсор на раздел {menuName}")
     public CitilinkStartPage moveToMenu(String menuName) {
-        SelenideElement menuElement = $$("span").findBy(exactText(menuName));
-        String xPath = ".//ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__menu']";
-        menuElement.$x(xPath).hover();
+        $$(CitilinkLocators.CATALOG_MENU_SECTION.by(menuName)).findBy(visible).hover();
         return this;
     }
 
     /**
      * Кликает на указанный внутренний раздел меню.
+     * Показатели перехода снимаются после ожидания готовности следующей страницы и сверяются с ее бюджетом
+     * производительности.
      *
      * @param innerMenuName имя внутреннего раздела меню, на который необходимо кликнуть
      * @param typeNextPage  класс следующей страницы, которая должна быть загружена после клика
@@ -52,10 +56,11 @@ public class CitilinkStartPage extends BasePage {
      */
     @Step("Кликаем на раздел {innerMenuName}")
     public <T extends BasePage> T clickToInnerMenu(String innerMenuName, Class<T> typeNextPage) {
-        String fullXPath =
-                "//span[text()='" + innerMenuName + "'][ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__body']]";
-        $x(fullXPath).click();
-        return typeNextPage.cast(page(typeNextPage));
+        PagePerformance.Mark mark = PagePerformance.mark();
+        $(CitilinkLocators.CATALOG_INNER_MENU_ITEM.by(innerMenuName)).click();
+        T nextPage = PageFactory.create(typeNextPage);
+        PagePerformance.measure(typeNextPage, mark, nextPage::awaitReady);
+        return nextPage;
     }
 
 }
@@ -0,0 +1,26 @@
+package com.bellintegrator.performance;
+
+/**
+ * Перечисление BudgetMode определяет реакцию на превышение бюджета производительности страницы.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum BudgetMode {
+
+    /**
+     * Превышение бюджета роняет тест.
+     */
+    FAIL,
+
+    /**
+     * Превышение бюджета записывается в лог и отчет Allure.
+     */
+    WARN,
+
+    /**
+     * Замеры производительности страниц не выполняются.
+     */
+    OFF
+}
@@ -0,0 +1,301 @@
+package com.bellintegrator.performance;
+
+import com.bellintegrator.metrics.StepTimings;
+import com.bellintegrator.properties.Properties;
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import com.codeborne.selenide.ex.UIAssertionError;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import static com.codeborne.selenide.Selenide.webdriver;
+import static com.codeborne.selenide.WebDriverConditions.url;
+
+/**
+ * Класс PagePerformance снимает показатели загрузки страницы из Navigation Timing, Resource Timing
+ * и Largest Contentful Paint, прикладывает их к отчету Allure и сверяет с бюджетом класса страницы.
+ * Переход без перезагрузки документа (клиентская маршрутизация) распознается по неизменному
+ * performance.timeOrigin: для него доступны только время перехода и объем загруженных ресурсов. Время такого
+ * перехода снимается после ожидания готовности новой страницы; если страница его не задает, время только
+ * записывается в отчет и с бюджетом не сверяется, потому что смена адреса не говорит о загрузке содержимого.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class PagePerformance {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagePerformance.class);
+
+    /**
+     * Скрипт отметки перед действием, ведущим к переходу.
+     */
+    private static final String MARK_SCRIPT = "return [performance.timeOrigin, performance.now(), location.href];";
+
+    /**
+     * Асинхронный скрипт, дожидающийся события load и возвращающий показатели загрузки.
+     */
+    private static final String COLLECT_SCRIPT =
+            "var previousOrigin = arguments[0], mark = arguments[1], timeout = arguments[2];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var deadline = Date.now() + timeout;" +
+            "var soft = previousOrigin !== null && performance.timeOrigin === previousOrigin;" +
+            "var resources = function (since) {" +
+            "  var result = {bytes: 0, count: 0};" +
+            "  performance.getEntriesByType('resource').forEach(function (r) {" +
+            "    if (r.startTime >= since) { result.bytes += r.transferSize || 0; result.count++; }" +
+            "  });" +
+            "  return result;" +
+            "};" +
+            "var finish = function (lcp) {" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  var result = {url: location.href, soft: soft};" +
+            "  if (soft) {" +
+            "    var loaded = resources(mark);" +
+            "    result.elapsed = performance.now() - mark;" +
+            "    result.transferBytes = loaded.bytes; result.resources = loaded.count;" +
+            "  } else {" +
+            "    var all = resources(0);" +
+            "    result.ttfb = nav ? nav.responseStart || null : null;" +
+            "    result.domContentLoaded = nav ? nav.domContentLoadedEventEnd || null : null;" +
+            "    result.load = nav ? nav.loadEventEnd || null : null;" +
+            "    result.lcp = lcp;" +
+            "    result.transferBytes = (nav ? nav.transferSize || 0 : 0) + all.bytes; result.resources = all.count;" +
+            "  }" +
+            "  done(result);" +
+            "};" +
+            "var finishWithLcp = function () {" +
+            "  var lcp = null;" +
+            "  try {" +
+            "    var observer = new PerformanceObserver(function (list) {" +
+            "      var entries = list.getEntries();" +
+            "      if (entries.length) { lcp = entries[entries.length - 1].startTime; }" +
+            "    });" +
+            "    observer.observe({type: 'largest-contentful-paint', buffered: true});" +
+            "    setTimeout(function () { observer.disconnect(); finish(lcp); }, 50);" +
+            "  } catch (e) { finish(null); }" +
+            "};" +
+            "(function poll() {" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  if (soft) { finish(null); return; }" +
+            "  if ((nav && nav.loadEventEnd > 0) || Date.now() >= deadline) { finishWithLcp(); return; }" +
+            "  setTimeout(poll, 50);" +
+            "})();";
+
+    /**
+     * Запас времени сверх ожидания для таймаута асинхронных скриптов WebDriver.
+     */
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private PagePerformance() {
+    }
+
+    /**
+     * Отметка состояния страницы перед действием, ведущим к переходу.
+     */
+    public static final class Mark {
+
+        /**
+         * Значение performance.timeOrigin документа до перехода.
+         */
+        private final Number timeOrigin;
+
+        /**
+         * Значение performance.now() в момент отметки.
+         */
+        private final Number time;
+
+        /**
+         * Адрес страницы до перехода.
+         */
+        private final String url;
+
+        /**
+         * Конструктор отметки.
+         *
+         * @param timeOrigin значение performance.timeOrigin
+         * @param time значение performance.now()
+         * @param url адрес страницы
+         */
+        private Mark(Number timeOrigin, Number time, String url) {
+            this.timeOrigin = timeOrigin;
+            this.time = time;
+            this.url = url;
+        }
+    }
+
+    /**
+     * Запоминает состояние страницы перед действием, ведущим к переходу.
+     *
+     * @return отметка или null, если замеры выключены
+     */
+    public static Mark mark() {
+        if (Properties.testsProperties.performanceBudgetMode() == BudgetMode.OFF) {
+            return null;
+        }
+        List<Object> values = Selenide.executeJavaScript(MARK_SCRIPT);
+        return new Mark((Number) values.get(0), (Number) values.get(1), (String) values.get(2));
+    }
+
+    /**
+     * Снимает показатели загрузки документа, открытого навигацией по адресу, и сверяет их с бюджетом страницы.
+     *
+     * @param pageClass класс открытой страницы
+     */
+    public static void measure(Class<?> pageClass) {
+        if (Properties.testsProperties.performanceBudgetMode() != BudgetMode.OFF) {
+            collect(pageClass, null, true);
+        }
+    }
+
+    /**
+     * Дожидается смены адреса после действия и готовности новой страницы, снимает показатели перехода
+     * и сверяет их с бюджетом страницы.
+     *
+     * @param pageClass класс страницы, на которую выполнен переход
+     * @param mark отметка, снятая перед действием
+     * @param readyWait ожидание готовности страницы; возвращает false, если страница его не задает
+     */
+    public static void measure(Class<?> pageClass, Mark mark, BooleanSupplier readyWait) {
+        if (mark == null || Properties.testsProperties.performanceBudgetMode() == BudgetMode.OFF) {
+            return;
+        }
+        try {
+            webdriver().shouldNotHave(url(mark.url));
+        } catch (UIAssertionError e) {
+            LOGGER.warn("Адрес не изменился после перехода на {}, замер пропущен", pageClass.getSimpleName());
+            return;
+        }
+        collect(pageClass, mark, readyWait.getAsBoolean());
+    }
+
+    /**
+     * Снимает показатели, прикладывает их к отчету и сверяет с бюджетом.
+     *
+     * @param pageClass класс страницы
+     * @param mark отметка перед переходом или null для навигации по адресу
+     * @param ready признак того, что перед замером дождались готовности страницы
+     */
+    private static void collect(Class<?> pageClass, Mark mark, boolean ready) {
+        Duration timeout = Duration.ofMillis(Configuration.pageLoadTimeout);
+        Duration scriptTimeout = timeout.plus(SCRIPT_TIMEOUT_MARGIN);
+        if (WebDriverRunner.getWebDriver().manage().timeouts().getScriptTimeout().compareTo(scriptTimeout) < 0) {
+            WebDriverRunner.getWebDriver().manage().timeouts().scriptTimeout(scriptTimeout);
+        }
+        Map<String, Object> raw = Selenide.executeAsyncJavaScript(COLLECT_SCRIPT,
+                mark == null ? null : mark.timeOrigin, mark == null ? 0 : mark.time, timeout.toMillis());
+        if (raw == null) {
+            LOGGER.warn("Не удалось получить показатели загрузки страницы {}", pageClass.getSimpleName());
+            return;
+        }
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        putMetric(metrics, "ttfb.millis", raw.get("ttfb"), 1);
+        putMetric(metrics, "dom.content.loaded.millis", raw.get("domContentLoaded"), 1);
+        putMetric(metrics, "load.millis", raw.get("load"), 1);
+        putMetric(metrics, "lcp.millis", raw.get("lcp"), 1);
+        putMetric(metrics, "elapsed.millis", raw.get("elapsed"), 1);
+        putMetric(metrics, "transfer.kb", raw.get("transferBytes"), 1024);
+        putMetric(metrics, "resources", raw.get("resources"), 1);
+
+        String page = pageClass.getSimpleName();
+        metrics.forEach((metric, value) -> {
+            if (metric.endsWith(".millis")) {
+                StepTimings.record("page." + page + "." + metric.substring(0, metric.length() - ".millis".length()),
+                        TimeUnit.MICROSECONDS.toNanos(Math.round(value * 1000)));
+            }
+        });
+
+        Map<String, Long> budgets = budgets(pageClass);
+        if (!ready && budgets.remove("elapsed.millis") != null) {
+            LOGGER.info("Страница {} не задает ожидания готовности, время перехода не сверяется с бюджетом",
+                    pageClass.getSimpleName());
+        }
+        List<String> violations = new ArrayList<>();
+        budgets.forEach((metric, budget) -> {
+            Double value = metrics.get(metric);
+            if (value != null && value > budget) {
+                violations.add(String.format("%s: %.0f > %d", metric, value, budget));
+            }
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("page", page);
+        report.put("url", raw.get("url"));
+        report.put("navigation", Boolean.TRUE.equals(raw.get("soft")) ? "soft" : "document");
+        report.put("metrics", metrics);
+        report.put("budgets", budgets);
+        report.put("violations", violations);
+        Allure.addAttachment("Производительность страницы " + page, "application/json",
+                new Json().toJson(report), ".json");
+
+        if (violations.isEmpty()) {
+            LOGGER.info("Производительность страницы {}: {}", page, metrics);
+            return;
+        }
+        String message = "Превышен бюджет производительности страницы " + page + ": " + String.join(", ", violations);
+        if (Properties.testsProperties.performanceBudgetMode() == BudgetMode.FAIL) {
+            throw new AssertionError(message);
+        }
+        LOGGER.warn(message);
+    }
+
+    /**
+     * Добавляет показатель, если браузер его вернул.
+     *
+     * @param metrics показатели
+     * @param name имя показателя
+     * @param value значение из браузера
+     * @param divisor делитель для перевода в единицы показателя
+     */
+    private static void putMetric(Map<String, Double> metrics, String name, Object value, double divisor) {
+        if (value instanceof Number) {
+            metrics.put(name, ((Number) value).doubleValue() / divisor);
+        }
+    }
+
+    /**
+     * Возвращает бюджет страницы: значения аннотации PerformanceBudget, переопределенные свойствами
+     * performance.budget.ИмяКласса.метрика.
+     *
+     * @param pageClass класс страницы
+     * @return ограничения по именам показателей
+     */
+    static Map<String, Long> budgets(Class<?> pageClass) {
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        PerformanceBudget annotation = pageClass.getAnnotation(PerformanceBudget.class);
+        if (annotation != null) {
+            budgets.put("ttfb.millis", annotation.ttfbMillis());
+            budgets.put("dom.content.loaded.millis", annotation.domContentLoadedMillis());
+            budgets.put("load.millis", annotation.loadMillis());
+            budgets.put("lcp.millis", annotation.lcpMillis());
+            budgets.put("elapsed.millis", annotation.elapsedMillis());
+            budgets.put("transfer.kb", annotation.transferKb());
+        }
+        for (String metric : new String[]{"ttfb.millis", "dom.content.loaded.millis", "load.millis",
+                "lcp.millis", "elapsed.millis", "transfer.kb"}) {
+            String value = Properties.testsProperties.getProperty(
+                    "performance.budget." + pageClass.getSimpleName() + "." + metric);
+            if (value != null && !value.trim().isEmpty()) {
+                budgets.put(metric, Long.parseLong(value.trim()));
+            }
+        }
+        budgets.values().removeIf(budget -> budget < 0);
+        return budgets;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bellintegrator.performance;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация PerformanceBudget задает бюджет производительности загрузки страницы для класса page object.
+ * Отрицательное значение означает отсутствие ограничения. Любое значение можно переопределить свойством
+ * performance.budget.ИмяКласса.метрика, например performance.budget.CitilinkCatalogPage.lcp.millis.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PerformanceBudget {
+
+    /**
+     * Время до первого байта ответа (ttfb.millis).
+     *
+     * @return бюджет в миллисекундах
+     */
+    long ttfbMillis() default -1;
+
+    /**
+     * Время до события DOMContentLoaded (dom.content.loaded.millis).
+     *
+     * @return бюджет в миллисекундах
+     */
+    long domContentLoadedMillis() default -1;
+
+    /**
+     * Время до события load (load.millis).
+     *
+     * @return бюджет в миллисекундах
+     */
+    long loadMillis() default -1;
+
+    /**
+     * Время отрисовки наибольшего элемента, Largest Contentful Paint (lcp.millis).
+     *
+     * @return бюджет в миллисекундах
+     */
+    long lcpMillis() default -1;
+
+    /**
+     * Время перехода без перезагрузки документа, от действия до готовности новой страницы (elapsed.millis).
+     * Сверяется, только если страница задает ожидание готовности BasePage.awaitReady.
+     *
+     * @return бюджет в миллисекундах
+     */
+    long elapsedMillis() default -1;
+
+    /**
+     * Объем переданных по сети данных документа и ресурсов (transfer.kb).
+     *
+     * @return бюджет в килобайтах
+     */
+    long transferKb() default -1;
+}
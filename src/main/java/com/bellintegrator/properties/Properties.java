@@ -14,5 +14,5 @@ public class Properties {
     /**
      * Объект testsProperties загружает свойства тестов из конфигурационного файла.
      */
-    public static TestsProperties testsProperties = ConfigFactory.create(TestsProperties.class);
+    public static final TestsProperties testsProperties = ConfigFactory.create(TestsProperties.class);
 }
@@ -1,9 +1,22 @@
 package com.bellintegrator.properties;
 
+import com.bellintegrator.network.NetworkMode;
+import com.bellintegrator.network.ResourceType;
+import com.bellintegrator.performance.BudgetMode;
+import com.bellintegrator.service.AttachmentWriter;
+import com.bellintegrator.service.CaptureMode;
+import com.bellintegrator.service.ScreenshotFormat;
+import com.bellintegrator.service.ScreenshotScope;
+import io.qameta.allure.selenide.LogType;
+import org.aeonbits.owner.Accessible;
 import org.aeonbits.owner.Config;
+import org.aeonbits.owner.Mutable;
+import java.util.List;
 
 /**
  * Интерфейс TestsProperties для загрузки конфигурационных свойств из различных источников.
+ * Изменяемый, чтобы режим воспроизведения мог перенаправить citilink.url на локальный сервер,
+ * и доступный по имени свойства для бюджетов производительности страниц performance.budget.*.
  *
  * @version 1.0
  * @since 2024-06-22
@@ -15,7 +28,7 @@ import org.aeonbits.owner.Config;
         "system:env",
         "file:src/main/resources/tests.properties"
 })
-public interface TestsProperties extends Config {
+public interface TestsProperties extends Config, Mutable, Accessible {
 
     /**
      * Возвращает URL для сайта Citilink.
@@ -25,4 +38,680 @@ public interface TestsProperties extends Config {
     @Config.Key("citilink.url")
     String citilinkUrl();
 
+    /**
+     * Возвращает режим работы с сетью: живой сайт, запись или воспроизведение архива.
+     *
+     * @return режим LIVE, RECORD или REPLAY
+     */
+    @Config.Key("network.mode")
+    @Config.DefaultValue("LIVE")
+    NetworkMode networkMode();
+
+    /**
+     * Возвращает каталог сетевого архива для режимов RECORD и REPLAY. Режим RECORD перезаписывает архив,
+     * поэтому по умолчанию он находится в target; архив, хранимый в репозитории, задается через
+     * -Dnetwork.archive.dir.
+     *
+     * @return путь к каталогу архива
+     */
+    @Config.Key("network.archive.dir")
+    @Config.DefaultValue("target/network-archive")
+    String networkArchiveDir();
+
+    /**
+     * Определяет, блокировать ли запросы браузера, не влияющие на проверки тестов.
+     *
+     * @return true, если блокировка включена
+     */
+    @Config.Key("network.block.enabled")
+    @Config.DefaultValue("false")
+    boolean networkBlockEnabled();
+
+    /**
+     * Возвращает блокируемые типы ресурсов.
+     *
+     * @return список типов ресурсов
+     */
+    @Config.Key("network.block.resource.types")
+    @Config.DefaultValue("IMAGE,FONT,MEDIA")
+    List<ResourceType> networkBlockResourceTypes();
+
+    /**
+     * Возвращает запрещающие шаблоны URL; символ * соответствует любой подстроке.
+     *
+     * @return список шаблонов
+     */
+    @Config.Key("network.block.deny.patterns")
+    @Config.DefaultValue("")
+    List<String> networkBlockDenyPatterns();
+
+    /**
+     * Возвращает разрешающие шаблоны URL, имеющие приоритет над типами ресурсов и запрещающими шаблонами.
+     *
+     * @return список шаблонов
+     */
+    @Config.Key("network.block.allow.patterns")
+    @Config.DefaultValue("")
+    List<String> networkBlockAllowPatterns();
+
+    /**
+     * Определяет, оценивать ли размер заблокированных ресурсов, которых нет в сетевом архиве,
+     * по заголовку Content-Length ответа на HEAD-запрос. Ресурсы, совпадающие с запрещающими шаблонами,
+     * не запрашиваются никогда, их размер берется только из архива.
+     *
+     * @return true, если размер оценивается HEAD-запросами
+     */
+    @Config.Key("network.block.size.probe")
+    @Config.DefaultValue("false")
+    boolean networkBlockSizeProbe();
+
+    /**
+     * Возвращает таймаут HEAD-запроса оценки размера и ожидания незавершенных оценок в конце теста.
+     *
+     * @return таймаут в миллисекундах
+     */
+    @Config.Key("network.block.size.probe.timeout.millis")
+    @Config.DefaultValue("2000")
+    int networkBlockSizeProbeTimeoutMillis();
+
+    /**
+     * Возвращает количество заранее запущенных экземпляров WebDriver в пуле.
+     *
+     * @return размер пула WebDriver
+     */
+    @Config.Key("webdriver.pool.size")
+    @Config.DefaultValue("1")
+    int webDriverPoolSize();
+
+    /**
+     * Возвращает максимальный возраст экземпляра WebDriver в пуле, после которого он пересоздается.
+     *
+     * @return максимальный возраст в минутах
+     */
+    @Config.Key("webdriver.pool.max.age.minutes")
+    @Config.DefaultValue("30")
+    long webDriverPoolMaxAgeMinutes();
+
+    /**
+     * Возвращает максимальное количество тестов, выполняемых одним экземпляром WebDriver из пула.
+     *
+     * @return максимальное количество использований
+     */
+    @Config.Key("webdriver.pool.max.uses")
+    @Config.DefaultValue("50")
+    int webDriverPoolMaxUses();
+
+    /**
+     * Определяет, запускать ли браузер без окна.
+     *
+     * @return true, если браузер запускается в режиме headless
+     */
+    @Config.Key("browser.headless")
+    @Config.DefaultValue("false")
+    boolean browserHeadless();
+
+    /**
+     * Возвращает размер окна браузера вида "1920x1080".
+     *
+     * @return размер окна или пустая строка, если окно разворачивается на весь экран
+     */
+    @Config.Key("browser.window.size")
+    @Config.DefaultValue("")
+    String browserWindowSize();
+
+    /**
+     * Определяет, отключать ли фоновые функции браузера: обновление компонентов, синхронизацию,
+     * фоновые сетевые запросы и замедление фоновых вкладок.
+     *
+     * @return true, если фоновые функции отключаются
+     */
+    @Config.Key("browser.disable.background.features")
+    @Config.DefaultValue("true")
+    boolean browserDisableBackgroundFeatures();
+
+    /**
+     * Возвращает дополнительные аргументы командной строки браузера.
+     *
+     * @return список аргументов
+     */
+    @Config.Key("browser.arguments")
+    @Config.DefaultValue("")
+    List<String> browserArguments();
+
+    /**
+     * Определяет, запускать ли браузеры с копией прогретого шаблона профиля с HTTP-кешем.
+     *
+     * @return true, если шаблон профиля используется
+     */
+    @Config.Key("browser.profile.template.enabled")
+    @Config.DefaultValue("false")
+    boolean browserProfileTemplateEnabled();
+
+    /**
+     * Возвращает каталог шаблона профиля браузера, общего для всех тестов и прогонов.
+     *
+     * @return путь к каталогу шаблона
+     */
+    @Config.Key("browser.profile.template.dir")
+    @Config.DefaultValue(".browser-cache/chrome-profile-template")
+    String browserProfileTemplateDir();
+
+    /**
+     * Возвращает версию шаблона профиля; при ее изменении шаблон создается заново.
+     *
+     * @return версия шаблона
+     */
+    @Config.Key("browser.profile.template.version")
+    @Config.DefaultValue("1")
+    int browserProfileTemplateVersion();
+
+    /**
+     * Возвращает максимальный возраст шаблона профиля, после которого он создается заново.
+     *
+     * @return возраст в часах
+     */
+    @Config.Key("browser.profile.template.max.age.hours")
+    @Config.DefaultValue("24")
+    long browserProfileTemplateMaxAgeHours();
+
+    /**
+     * Возвращает пути страниц, которые открываются при создании шаблона профиля, чтобы заполнить HTTP-кеш.
+     * Пути разрешаются относительно citilink.url.
+     *
+     * @return список путей
+     */
+    @Config.Key("browser.profile.warmup.paths")
+    @Config.DefaultValue("/")
+    List<String> browserProfileWarmupPaths();
+
+    /**
+     * Возвращает каталог, в который копируется шаблон профиля для каждого запускаемого браузера.
+     *
+     * @return путь к каталогу копий профиля
+     */
+    @Config.Key("browser.profile.work.dir")
+    @Config.DefaultValue("target/browser-profiles")
+    String browserProfileWorkDir();
+
+    /**
+     * Возвращает максимальный объем HTTP-кеша браузера, запущенного с профилем из шаблона.
+     *
+     * @return объем кеша в байтах
+     */
+    @Config.Key("browser.disk.cache.max.bytes")
+    @Config.DefaultValue("268435456")
+    long browserDiskCacheMaxBytes();
+
+    /**
+     * Возвращает количество тестов, выполняемых параллельно в одной JVM.
+     *
+     * @return степень параллелизма
+     */
+    @Config.Key("tests.parallelism")
+    @Config.DefaultValue("1")
+    int parallelism();
+
+    /**
+     * Возвращает общее количество исполнителей, между которыми делятся наборы аргументов.
+     *
+     * @return количество исполнителей
+     */
+    @Config.Key("shard.count")
+    @Config.DefaultValue("1")
+    int shardCount();
+
+    /**
+     * Возвращает номер текущего исполнителя, начиная с 0.
+     *
+     * @return номер исполнителя
+     */
+    @Config.Key("shard.index")
+    @Config.DefaultValue("0")
+    int shardIndex();
+
+    /**
+     * Возвращает путь к сохраненной копии страницы, на которой замеряется скорость локаторов.
+     *
+     * @return путь к HTML-файлу копии страницы
+     */
+    @Config.Key("locators.snapshot.path")
+    @Config.DefaultValue("src/test/resources/snapshots/citilink-catalog.html")
+    String locatorsSnapshotPath();
+
+    /**
+     * Возвращает окно тишины DOM и сети, после которого область страницы считается загруженной.
+     *
+     * @return окно тишины в миллисекундах
+     */
+    @Config.Key("wait.settle.quiet.millis")
+    @Config.DefaultValue("300")
+    long settleQuietMillis();
+
+    /**
+     * Возвращает максимальный размер очереди фоновой записи вложений Allure.
+     *
+     * @return размер очереди вложений
+     */
+    @Config.Key("attachments.queue.size")
+    @Config.DefaultValue("64")
+    int attachmentsQueueSize();
+
+    /**
+     * Возвращает политику поведения при заполненной очереди вложений.
+     *
+     * @return политика BLOCK, DROP_OLDEST или DROP_NEW
+     */
+    @Config.Key("attachments.backpressure")
+    @Config.DefaultValue("BLOCK")
+    AttachmentWriter.BackpressurePolicy attachmentsBackpressure();
+
+    /**
+     * Возвращает максимальное время ожидания записи вложений по окончании теста.
+     *
+     * @return время ожидания в миллисекундах
+     */
+    @Config.Key("attachments.flush.timeout.millis")
+    @Config.DefaultValue("30000")
+    long attachmentsFlushTimeoutMillis();
+
+    /**
+     * Определяет, сжимать ли текстовые вложения (HTML, логи) gzip.
+     *
+     * @return true, если текстовые вложения сжимаются
+     */
+    @Config.Key("attachments.gzip.text")
+    @Config.DefaultValue("true")
+    boolean attachmentsGzipText();
+
+    /**
+     * Возвращает каталог для машиночитаемых отчетов прогона.
+     *
+     * @return путь к каталогу отчетов
+     */
+    @Config.Key("reports.dir")
+    @Config.DefaultValue("target/reports")
+    String reportsDir();
+
+    /**
+     * Определяет, снимать ли скриншоты после событий Selenide.
+     *
+     * @return true, если скриншоты снимаются
+     */
+    @Config.Key("attachments.screenshots")
+    @Config.DefaultValue("true")
+    boolean attachmentsScreenshots();
+
+    /**
+     * Определяет, снимать ли исходный код страницы после событий Selenide.
+     *
+     * @return true, если исходный код страницы снимается
+     */
+    @Config.Key("attachments.page.source")
+    @Config.DefaultValue("true")
+    boolean attachmentsPageSource();
+
+    /**
+     * Возвращает режим сохранения скриншотов и исходного кода страницы.
+     *
+     * @return режим ALWAYS или ON_FAILURE
+     */
+    @Config.Key("attachments.capture.mode")
+    @Config.DefaultValue("ALWAYS")
+    CaptureMode attachmentsCaptureMode();
+
+    /**
+     * Возвращает область скриншота: окно браузера или элемент события Selenide.
+     *
+     * @return область PAGE или ELEMENT
+     */
+    @Config.Key("screenshots.scope")
+    @Config.DefaultValue("PAGE")
+    ScreenshotScope screenshotsScope();
+
+    /**
+     * Возвращает максимальную ширину скриншота; более широкие скриншоты уменьшаются с сохранением пропорций.
+     *
+     * @return ширина в пикселях, 0 - без уменьшения
+     */
+    @Config.Key("screenshots.max.width")
+    @Config.DefaultValue("0")
+    int screenshotsMaxWidth();
+
+    /**
+     * Возвращает формат, в котором скриншоты сохраняются в отчет.
+     *
+     * @return формат PNG или JPEG
+     */
+    @Config.Key("screenshots.format")
+    @Config.DefaultValue("PNG")
+    ScreenshotFormat screenshotsFormat();
+
+    /**
+     * Возвращает качество скриншотов в формате JPEG.
+     *
+     * @return качество от 0 до 1
+     */
+    @Config.Key("screenshots.jpeg.quality")
+    @Config.DefaultValue("0.75")
+    float screenshotsJpegQuality();
+
+    /**
+     * Возвращает максимальные ширины скриншотов, сравниваемые замером стратегий скриншотов.
+     *
+     * @return ширины в пикселях, 0 - без уменьшения
+     */
+    @Config.Key("screenshots.benchmark.max.widths")
+    @Config.DefaultValue("0,1280,800")
+    List<Integer> screenshotsBenchmarkMaxWidths();
+
+    /**
+     * Возвращает наибольшее число одновременных запросов в проверках без браузера.
+     *
+     * @return число одновременных запросов
+     */
+    @Config.Key("smoke.max.concurrency")
+    @Config.DefaultValue("64")
+    int smokeMaxConcurrency();
+
+    /**
+     * Возвращает количество страниц каталога, проверяемых для каждого набора данных в проверках без браузера.
+     *
+     * @return количество страниц
+     */
+    @Config.Key("smoke.pages")
+    @Config.DefaultValue("3")
+    int smokePages();
+
+    /**
+     * Возвращает таймаут запроса в проверках без браузера.
+     *
+     * @return таймаут в миллисекундах
+     */
+    @Config.Key("smoke.request.timeout.millis")
+    @Config.DefaultValue("30000")
+    long smokeRequestTimeoutMillis();
+
+    /**
+     * Возвращает файл набора данных CSV или JSONL для теста поиска смартфонов; пустое значение - встроенный набор.
+     *
+     * @return путь к файлу набора данных
+     */
+    @Config.Key("dataset.file")
+    @Config.DefaultValue("")
+    String datasetFile();
+
+    /**
+     * Возвращает условия отбора строк набора данных вида колонка=значение.
+     *
+     * @return условия отбора
+     */
+    @Config.Key("dataset.filter")
+    @Config.DefaultValue("")
+    List<String> datasetFilter();
+
+    /**
+     * Возвращает долю строк набора данных, попадающих в прогон.
+     *
+     * @return доля от 0 до 1
+     */
+    @Config.Key("dataset.sample.rate")
+    @Config.DefaultValue("1.0")
+    double datasetSampleRate();
+
+    /**
+     * Возвращает зерно выборки строк набора данных; при одинаковом зерне выборка одинакова.
+     *
+     * @return зерно выборки
+     */
+    @Config.Key("dataset.sample.seed")
+    @Config.DefaultValue("0")
+    long datasetSampleSeed();
+
+    /**
+     * Определяет, распределяются ли строки набора данных между исполнителями по истории длительности.
+     * Для этого набор данных читается в память целиком; по умолчанию строки распределяются по кругу потоком.
+     *
+     * @return true, если строки распределяются по истории длительности
+     */
+    @Config.Key("dataset.balance.by.duration")
+    @Config.DefaultValue("false")
+    boolean datasetBalanceByDuration();
+
+    /**
+     * Возвращает файл истории длительности тестов, по которой наборы аргументов распределяются между исполнителями.
+     * Файл перезаписывается каждым прогоном, поэтому по умолчанию находится в target; CI сохраняет его
+     * между прогонами или задает свой путь.
+     *
+     * @return путь к файлу истории
+     */
+    @Config.Key("test.durations.file")
+    @Config.DefaultValue("target/test-durations.json")
+    String testDurationsFile();
+
+    /**
+     * Возвращает вес длительности последнего прогона при сглаживании истории.
+     *
+     * @return коэффициент от 0 до 1
+     */
+    @Config.Key("test.durations.smoothing")
+    @Config.DefaultValue("0.5")
+    double testDurationsSmoothing();
+
+    /**
+     * Возвращает предполагаемую длительность набора аргументов, когда истории нет совсем.
+     *
+     * @return длительность в миллисекундах
+     */
+    @Config.Key("test.durations.default.millis")
+    @Config.DefaultValue("60000")
+    long testDurationsDefaultMillis();
+
+    /**
+     * Возвращает наибольшее число вкладок одного браузера, в которых одновременно загружаются наборы данных.
+     *
+     * @return число вкладок
+     */
+    @Config.Key("tabs.fan.out.size")
+    @Config.DefaultValue("4")
+    int tabsFanOutSize();
+
+    /**
+     * Возвращает имя параметра запроса, в котором каталог принимает выбранные фасеты фильтров.
+     *
+     * @return имя параметра запроса
+     */
+    @Config.Key("catalog.filter.query.parameter")
+    @Config.DefaultValue("f")
+    String catalogFilterQueryParameter();
+
+    /**
+     * Возвращает разделитель фасетов в параметре запроса фильтров каталога.
+     *
+     * @return разделитель фасетов
+     */
+    @Config.Key("catalog.filter.token.separator")
+    @Config.DefaultValue(",")
+    String catalogFilterTokenSeparator();
+
+    /**
+     * Определяет, сохранять ли состояние браузера после подготовительных действий и восстанавливать ли его в тестах.
+     *
+     * @return true, если снимки сессии используются
+     */
+    @Config.Key("session.snapshot.enabled")
+    @Config.DefaultValue("true")
+    boolean sessionSnapshotEnabled();
+
+    /**
+     * Возвращает каталог снимков сессии.
+     *
+     * @return путь к каталогу снимков
+     */
+    @Config.Key("session.snapshot.dir")
+    @Config.DefaultValue("target/session-snapshots")
+    String sessionSnapshotDir();
+
+    /**
+     * Возвращает срок годности снимка сессии.
+     *
+     * @return срок в минутах
+     */
+    @Config.Key("session.snapshot.max.age.minutes")
+    @Config.DefaultValue("30")
+    long sessionSnapshotMaxAgeMinutes();
+
+    /**
+     * Возвращает версию снимков сессии; снимки другой версии не восстанавливаются.
+     *
+     * @return версия снимков
+     */
+    @Config.Key("session.snapshot.version")
+    @Config.DefaultValue("1")
+    String sessionSnapshotVersion();
+
+    /**
+     * Возвращает путь на сайте, который открывается для переноса cookies и storage перед восстановлением сессии.
+     *
+     * @return путь относительно адреса сайта
+     */
+    @Config.Key("session.restore.entry.path")
+    @Config.DefaultValue("/favicon.ico")
+    String sessionRestoreEntryPath();
+
+    /**
+     * Возвращает реакцию на превышение бюджета производительности страницы.
+     *
+     * @return режим FAIL, WARN или OFF
+     */
+    @Config.Key("performance.budget.mode")
+    @Config.DefaultValue("WARN")
+    BudgetMode performanceBudgetMode();
+
+    /**
+     * Возвращает типы логов WebDriver, сохраняемых в отчет; пустой список отключает сбор логов.
+     *
+     * @return типы логов (BROWSER, DRIVER, PERFORMANCE и другие)
+     */
+    @Config.Key("browser.logs.types")
+    @Config.DefaultValue("")
+    List<LogType> browserLogsTypes();
+
+    /**
+     * Возвращает минимальный уровень сохраняемых записей логов WebDriver.
+     *
+     * @return уровень java.util.logging, например SEVERE или ALL
+     */
+    @Config.Key("browser.logs.level")
+    @Config.DefaultValue("ALL")
+    String browserLogsLevel();
+
+    /**
+     * Возвращает наибольший объем логов WebDriver, сохраняемых для одного теста.
+     *
+     * @return объем в байтах
+     */
+    @Config.Key("browser.logs.max.bytes")
+    @Config.DefaultValue("5242880")
+    long browserLogsMaxBytes();
+
+    /**
+     * Возвращает каталог временных файлов логов WebDriver.
+     *
+     * @return путь к каталогу
+     */
+    @Config.Key("browser.logs.dir")
+    @Config.DefaultValue("target/browser-logs")
+    String browserLogsDir();
+
+    /**
+     * Определяет, подбирать ли таймауты ожиданий по времени успешных ожиданий в прошлых прогонах.
+     *
+     * @return true, если таймауты подбираются
+     */
+    @Config.Key("wait.adaptive.enabled")
+    @Config.DefaultValue("true")
+    boolean waitAdaptiveEnabled();
+
+    /**
+     * Возвращает файл замеров времени ожиданий. Файл перезаписывается каждым прогоном, поэтому по умолчанию
+     * находится в target; CI сохраняет его между прогонами или задает свой путь.
+     *
+     * @return путь к файлу замеров
+     */
+    @Config.Key("wait.adaptive.file")
+    @Config.DefaultValue("target/wait-timings.json")
+    String waitAdaptiveFile();
+
+    /**
+     * Возвращает количество последних замеров каждого ожидания, по которым подбирается таймаут.
+     *
+     * @return количество замеров
+     */
+    @Config.Key("wait.adaptive.samples")
+    @Config.DefaultValue("200")
+    int waitAdaptiveSamples();
+
+    /**
+     * Возвращает наименьшее количество замеров, начиная с которого таймаут подбирается.
+     *
+     * @return количество замеров
+     */
+    @Config.Key("wait.adaptive.min.samples")
+    @Config.DefaultValue("20")
+    int waitAdaptiveMinSamples();
+
+    /**
+     * Возвращает перцентиль времени ожидания, от которого считается таймаут.
+     *
+     * @return перцентиль от 0 до 1
+     */
+    @Config.Key("wait.adaptive.percentile")
+    @Config.DefaultValue("0.99")
+    double waitAdaptivePercentile();
+
+    /**
+     * Возвращает запас, на который умножается перцентиль времени ожидания.
+     *
+     * @return множитель
+     */
+    @Config.Key("wait.adaptive.margin")
+    @Config.DefaultValue("2.0")
+    double waitAdaptiveMargin();
+
+    /**
+     * Возвращает наименьший подбираемый таймаут.
+     *
+     * @return таймаут в миллисекундах
+     */
+    @Config.Key("wait.adaptive.floor.millis")
+    @Config.DefaultValue("1000")
+    long waitAdaptiveFloorMillis();
+
+    /**
+     * Возвращает наибольший подбираемый таймаут.
+     *
+     * @return таймаут в миллисекундах
+     */
+    @Config.Key("wait.adaptive.ceiling.millis")
+    @Config.DefaultValue("30000")
+    long waitAdaptiveCeilingMillis();
+
+    /**
+     * Возвращает количество последних снимков, хранимых в режиме ON_FAILURE.
+     *
+     * @return размер кольцевого буфера снимков
+     */
+    @Config.Key("flight.recorder.size")
+    @Config.DefaultValue("5")
+    int flightRecorderSize();
+
+    /**
+     * Возвращает максимальный объем памяти под снимки в режиме ON_FAILURE.
+     *
+     * @return объем буфера снимков в байтах
+     */
+    @Config.Key("flight.recorder.max.bytes")
+    @Config.DefaultValue("33554432")
+    long flightRecorderMaxBytes();
+
 }
@@ -0,0 +1,234 @@
+package com.bellintegrator.service;
+
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Класс AttachmentStore хранит вложения Allure по хешу содержимого: каждое уникальное вложение
+ * записывается в allure-results один раз за прогон тестового класса, повторные вложения ссылаются на уже
+ * записанный файл. После прогона класса сведения о записанных файлах сбрасываются, так как каталог
+ * allure-results может быть очищен между прогонами в одной JVM.
+ * Текстовые вложения при необходимости сжимаются gzip.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class AttachmentStore {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AttachmentStore.class);
+
+    /**
+     * Шестнадцатеричные цифры для представления хеша.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Объект AllureLifecycle, в шаги которого добавляются вложения.
+     */
+    private final AllureLifecycle lifecycle;
+
+    /**
+     * Фоновый писатель вложений.
+     */
+    private final AttachmentWriter writer;
+
+    /**
+     * Флаг сжатия текстовых вложений gzip.
+     */
+    private final boolean gzipText;
+
+    /**
+     * Имена уже записанных файлов вложений по хешу содержимого.
+     */
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+    /**
+     * Количество уникальных записанных вложений.
+     */
+    private final AtomicLong uniqueCount = new AtomicLong();
+
+    /**
+     * Общее количество добавленных вложений.
+     */
+    private final AtomicLong attachmentsCount = new AtomicLong();
+
+    /**
+     * Общий объем добавленных вложений в байтах до дедупликации и сжатия.
+     */
+    private final AtomicLong rawBytes = new AtomicLong();
+
+    /**
+     * Объем вложений, фактически записанных на диск, в байтах.
+     */
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    /**
+     * Конструктор хранилища вложений.
+     *
+     * @param lifecycle объект AllureLifecycle
+     * @param writer фоновый писатель вложений
+     * @param gzipText true, если текстовые вложения нужно сжимать gzip
+     */
+    public AttachmentStore(AllureLifecycle lifecycle, AttachmentWriter writer, boolean gzipText) {
+        this.lifecycle = lifecycle;
+        this.writer = writer;
+        this.gzipText = gzipText;
+    }
+
+    /**
+     * Добавляет вложение к текущему шагу или тесту. Если вложение с таким же содержимым уже записано,
+     * добавляется только ссылка на существующий файл. Вложение, отброшенное переполненной очередью записи,
+     * в отчет не добавляется.
+     *
+     * @param name имя вложения
+     * @param type MIME-тип вложения
+     * @param fileExtension расширение файла вложения
+     * @param content содержимое вложения
+     */
+    public void attach(String name, String type, String fileExtension, byte[] content) {
+        attach(name, type, fileExtension, content, UnaryOperator.identity());
+    }
+
+    /**
+     * Добавляет вложение, содержимое которого кодируется при записи в фоновом потоке (например, скриншот,
+     * уменьшаемый и перекодируемый в JPEG). Дедупликация выполняется по исходному содержимому.
+     *
+     * @param name имя вложения
+     * @param type MIME-тип закодированного вложения
+     * @param fileExtension расширение файла закодированного вложения
+     * @param content исходное содержимое вложения
+     * @param encoder кодирование содержимого; вызывается в фоновом потоке записи
+     */
+    public void attach(String name, String type, String fileExtension, byte[] content,
+                       UnaryOperator<byte[]> encoder) {
+        boolean compress = gzipText && isText(type);
+        String storedType = compress ? "application/gzip" : type;
+        String extension = fileExtension.startsWith(".") ? fileExtension.substring(1) : fileExtension;
+        String storedExtension = compress ? extension + ".gz" : extension;
+
+        String hash = sha256(content);
+        String source = hash + "-attachment." + storedExtension;
+        if (sources.putIfAbsent(hash, source) == null) {
+            boolean accepted = writer.submit(source, () -> {
+                byte[] encoded = encoder.apply(content);
+                byte[] stored = compress ? gzip(encoded) : encoded;
+                writtenBytes.addAndGet(stored.length);
+                return stored;
+            });
+            if (!accepted) {
+                sources.remove(hash, source);
+                return;
+            }
+            uniqueCount.incrementAndGet();
+        }
+        attachmentsCount.incrementAndGet();
+        rawBytes.addAndGet(content.length);
+
+        Attachment attachment = new Attachment().setName(name).setType(storedType).setSource(source);
+        if (lifecycle.getCurrentTestCase().equals(lifecycle.getCurrentTestCaseOrStep())) {
+            lifecycle.updateTestCase((result) -> result.getAttachments().add(attachment));
+        } else {
+            lifecycle.updateStep((step) -> step.getAttachments().add(attachment));
+        }
+    }
+
+    /**
+     * Возвращает статистику хранилища: количество вложений, коэффициент дедупликации, сэкономленный объем
+     * и количество вложений, отброшенных переполненной очередью записи.
+     *
+     * @return статистика хранилища
+     */
+    public Map<String, Object> getStatistics() {
+        long count = attachmentsCount.get();
+        long unique = uniqueCount.get();
+        long raw = rawBytes.get();
+        long written = writtenBytes.get();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("attachments", count);
+        statistics.put("uniqueAttachments", unique);
+        statistics.put("dedupRatio", unique == 0 ? 1.0 : (double) count / unique);
+        statistics.put("rawBytes", raw);
+        statistics.put("writtenBytes", written);
+        statistics.put("bytesSaved", raw - written);
+        statistics.put("droppedAttachments", writer.getDroppedCount());
+        return statistics;
+    }
+
+    /**
+     * Дожидается записи вложений, поставленных в очередь текущим потоком (вложения тестов уже записаны
+     * по окончании каждого теста), выводит статистику хранилища в лог, записывает ее в файл отчета
+     * attachments.json и сбрасывает сведения о записанных файлах.
+     *
+     * @param flushTimeoutMillis максимальное время ожидания записи вложений в миллисекундах
+     */
+    public void report(long flushTimeoutMillis) {
+        writer.flush(flushTimeoutMillis);
+        Map<String, Object> statistics = getStatistics();
+        LOGGER.info("Вложения Allure: {}", statistics);
+        Reports.writeJson("attachments.json", statistics);
+        sources.clear();
+    }
+
+    /**
+     * Определяет, является ли вложение текстовым.
+     *
+     * @param type MIME-тип вложения
+     * @return true, если вложение текстовое
+     */
+    private static boolean isText(String type) {
+        return type.startsWith("text/") || type.equals("application/json");
+    }
+
+    /**
+     * Вычисляет SHA-256 хеш содержимого.
+     *
+     * @param content содержимое
+     * @return хеш в шестнадцатеричном виде
+     */
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+                chars[2 * i + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(chars);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Сжимает содержимое gzip.
+     *
+     * @param content содержимое
+     * @return сжатое содержимое
+     */
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,274 @@
+package com.bellintegrator.service;
+
+import io.qameta.allure.AllureLifecycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Класс AttachmentWriter выполняет кодирование и запись вложений Allure в фоновом потоке.
+ * Поток теста только снимает "сырые" данные и ставит задачу в ограниченную очередь,
+ * поэтому время шага не включает дисковый ввод-вывод. Незавершенные задачи учитываются по потокам,
+ * поставившим их в очередь, поэтому при параллельном выполнении тест ожидает записи только своих вложений.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class AttachmentWriter {
+
+    /**
+     * Политика поведения при заполненной очереди записи.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * Поток теста ожидает освобождения места в очереди.
+         */
+        BLOCK,
+        /**
+         * Самое старое вложение в очереди отбрасывается.
+         */
+        DROP_OLDEST,
+        /**
+         * Новое вложение отбрасывается.
+         */
+        DROP_NEW
+    }
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AttachmentWriter.class);
+
+    /**
+     * Содержимое, записываемое вместо вложения, вытесненного из переполненной очереди.
+     */
+    private static final byte[] PLACEHOLDER =
+            "Вложение отброшено: очередь записи вложений переполнена".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Объект AllureLifecycle, через который записываются файлы вложений.
+     */
+    private final AllureLifecycle lifecycle;
+
+    /**
+     * Ограниченная очередь задач записи.
+     */
+    private final BlockingQueue<Task> queue;
+
+    /**
+     * Политика поведения при заполненной очереди.
+     */
+    private final BackpressurePolicy policy;
+
+    /**
+     * Заглушки вместо вложений, вытесненных из очереди политикой DROP_OLDEST; записываются фоновым потоком.
+     */
+    private final Queue<Task> placeholders = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Количество задач, поставленных в очередь текущим потоком, но еще не завершенных.
+     */
+    private final ThreadLocal<AtomicLong> pending = ThreadLocal.withInitial(AtomicLong::new);
+
+    /**
+     * Количество отброшенных вложений.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Конструктор, создающий очередь и запускающий фоновый поток записи.
+     *
+     * @param lifecycle объект AllureLifecycle
+     * @param queueSize максимальный размер очереди
+     * @param policy политика поведения при заполненной очереди
+     */
+    public AttachmentWriter(AllureLifecycle lifecycle, int queueSize, BackpressurePolicy policy) {
+        this.lifecycle = lifecycle;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.policy = policy;
+        Thread worker = new Thread(this::run, "allure-attachment-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Ставит вложение в очередь на запись. Вложение, вытесненное из очереди политикой DROP_OLDEST,
+     * уже добавлено в отчет, поэтому вместо него фоновый поток записывает короткую заглушку.
+     *
+     * @param source имя файла вложения, полученное от AllureLifecycle.prepareAttachment
+     * @param content функция, кодирующая содержимое вложения; вызывается в фоновом потоке
+     * @return true, если вложение принято в очередь; false, если оно отброшено и ссылку на него добавлять нельзя
+     */
+    public boolean submit(String source, Supplier<byte[]> content) {
+        AtomicLong owner = pending.get();
+        Task task = new Task(source, content, owner);
+        owner.incrementAndGet();
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(task);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(task);
+                    return false;
+                }
+            case DROP_OLDEST:
+                while (!queue.offer(task)) {
+                    Task oldest = queue.poll();
+                    if (oldest != null) {
+                        dropped.incrementAndGet();
+                        LOGGER.warn("Очередь вложений переполнена, вложение {} заменено заглушкой", oldest.source);
+                        placeholders.add(new Task(oldest.source, () -> PLACEHOLDER, oldest.owner));
+                    }
+                }
+                return true;
+            case DROP_NEW:
+            default:
+                if (!queue.offer(task)) {
+                    drop(task);
+                    return false;
+                }
+                return true;
+        }
+    }
+
+    /**
+     * Ожидает записи всех вложений, поставленных в очередь текущим потоком.
+     *
+     * @param timeoutMillis максимальное время ожидания в миллисекундах
+     * @return true, если все вложения записаны; false, если время ожидания истекло
+     */
+    public boolean flush(long timeoutMillis) {
+        AtomicLong owner = pending.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (owner) {
+            while (owner.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    LOGGER.warn("Не дождались записи вложений, осталось {}", owner.get());
+                    return false;
+                }
+                try {
+                    owner.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает количество вложений, отброшенных из-за переполнения очереди.
+     *
+     * @return количество отброшенных вложений
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Цикл фонового потока: записывает заглушки вытесненных вложений, затем извлекает задачи из очереди,
+     * кодирует и записывает их. Заглушка появляется только при заполненной очереди, поэтому фоновый поток
+     * не ожидает в take, пока заглушки не записаны.
+     */
+    private void run() {
+        while (true) {
+            Task placeholder;
+            while ((placeholder = placeholders.poll()) != null) {
+                write(placeholder);
+            }
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            write(task);
+        }
+    }
+
+    /**
+     * Кодирует и записывает вложение и отмечает задачу завершенной.
+     *
+     * @param task задача записи
+     */
+    private void write(Task task) {
+        try {
+            lifecycle.writeAttachment(task.source, new ByteArrayInputStream(task.content.get()));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Не удалось записать вложение {}", task.source, e);
+        } finally {
+            complete(task);
+        }
+    }
+
+    /**
+     * Отбрасывает задачу записи.
+     *
+     * @param task отбрасываемая задача
+     */
+    private void drop(Task task) {
+        dropped.incrementAndGet();
+        LOGGER.warn("Очередь вложений переполнена, вложение {} отброшено", task.source);
+        complete(task);
+    }
+
+    /**
+     * Отмечает задачу завершенной и будит поток, поставивший ее в очередь, если он ожидает flush.
+     *
+     * @param task завершенная задача
+     */
+    private static void complete(Task task) {
+        if (task.owner.decrementAndGet() == 0) {
+            synchronized (task.owner) {
+                task.owner.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Задача записи одного вложения.
+     */
+    private static final class Task {
+
+        /**
+         * Имя файла вложения.
+         */
+        private final String source;
+
+        /**
+         * Функция, кодирующая содержимое вложения.
+         */
+        private final Supplier<byte[]> content;
+
+        /**
+         * Счетчик незавершенных задач потока, поставившего задачу в очередь.
+         */
+        private final AtomicLong owner;
+
+        /**
+         * Конструктор задачи записи.
+         *
+         * @param source имя файла вложения
+         * @param content функция, кодирующая содержимое вложения
+         * @param owner счетчик незавершенных задач потока, поставившего задачу в очередь
+         */
+        private Task(String source, Supplier<byte[]> content, AtomicLong owner) {
+            this.source = source;
+            this.content = content;
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.bellintegrator.service;
+
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.selenide.LogType;
+import org.openqa.selenium.logging.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Класс BrowserLogStream дописывает логи браузера одного теста в файл по мере их поступления,
+ * не удерживая их в памяти. Объем файла ограничен: записи сверх лимита только подсчитываются.
+ * По окончании теста файл прикладывается к отчету Allure потоком и удаляется.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class BrowserLogStream {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrowserLogStream.class);
+
+    /**
+     * Файл логов теста.
+     */
+    private final Path file;
+
+    /**
+     * Писатель файла логов.
+     */
+    private final BufferedWriter writer;
+
+    /**
+     * Наибольший объем файла в байтах.
+     */
+    private final long maxBytes;
+
+    /**
+     * Объем записанных логов в байтах.
+     */
+    private long writtenBytes;
+
+    /**
+     * Количество записанных записей.
+     */
+    private long writtenEntries;
+
+    /**
+     * Количество записей, не поместившихся в лимит.
+     */
+    private long droppedEntries;
+
+    /**
+     * Конструктор потока логов.
+     *
+     * @param directory каталог временных файлов логов
+     * @param maxBytes наибольший объем файла в байтах
+     * @throws IOException при ошибке создания файла
+     */
+    public BrowserLogStream(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.file = Files.createTempFile(directory, "browser-logs", ".txt");
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Дописывает новые записи лога.
+     *
+     * @param logType тип лога
+     * @param entries новые записи
+     */
+    public void append(LogType logType, List<LogEntry> entries) {
+        for (LogEntry entry : entries) {
+            String line = Instant.ofEpochMilli(entry.getTimestamp()) + " [" + logType + "] "
+                    + entry.getLevel() + " " + entry.getMessage() + System.lineSeparator();
+            long lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+            if (writtenBytes + lineBytes > maxBytes) {
+                droppedEntries++;
+                continue;
+            }
+            try {
+                writer.write(line);
+                writtenBytes += lineBytes;
+                writtenEntries++;
+            } catch (IOException e) {
+                LOGGER.warn("Не удалось записать логи браузера в {}", file, e);
+                droppedEntries++;
+            }
+        }
+    }
+
+    /**
+     * Прикладывает файл логов к текущему шагу или тесту отчета Allure, если в него что-то записано,
+     * и удаляет файл.
+     *
+     * @param lifecycle объект AllureLifecycle
+     */
+    public void attachTo(AllureLifecycle lifecycle) {
+        try {
+            if (droppedEntries > 0) {
+                writer.write("... пропущено записей сверх лимита " + maxBytes + " байт: " + droppedEntries
+                        + System.lineSeparator());
+            }
+            writer.close();
+            if (writtenEntries > 0 || droppedEntries > 0) {
+                try (InputStream content = Files.newInputStream(file)) {
+                    lifecycle.addAttachment("Логи браузера", "text/plain", "txt", content);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось приложить логи браузера из {}", file, e);
+        } finally {
+            delete();
+        }
+    }
+
+    /**
+     * Закрывает и удаляет файл логов без вложения в отчет.
+     */
+    public void discard() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.debug("Не удалось закрыть файл логов браузера {}", file, e);
+        }
+        delete();
+    }
+
+    /**
+     * Удаляет файл логов.
+     */
+    private void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("Не удалось удалить файл логов браузера {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bellintegrator.service;
+
+/**
+ * Перечисление CaptureMode определяет, когда скриншоты и исходный код страницы попадают в отчет Allure.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum CaptureMode {
+
+    /**
+     * Вложения сохраняются после каждого события Selenide.
+     */
+    ALWAYS,
+
+    /**
+     * Последние снимки хранятся в кольцевом буфере и сохраняются только при падении шага или теста.
+     */
+    ON_FAILURE
+}
@@ -1,6 +1,7 @@
 package com.bellintegrator.service;
 
-import com.codeborne.selenide.Selenide;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.webdriver.ElementTracker;
 import com.codeborne.selenide.WebDriverRunner;
 import com.codeborne.selenide.logevents.LogEvent;
 import com.codeborne.selenide.logevents.SelenideLog;
@@ -11,15 +12,22 @@ import io.qameta.allure.model.StatusDetails;
 import io.qameta.allure.selenide.AllureSelenide;
 import io.qameta.allure.selenide.LogType;
 import io.qameta.allure.util.ResultsUtils;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LoggingPreferences;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 
 /**
@@ -52,15 +60,51 @@ public class CustomAllureSelenide extends AllureSelenide {
     private final boolean includeSelenideLocatorsSteps;
 
     /**
-     * Карта для хранения типов логов и уровней логирования.
+     * Типы логов браузера, сохраняемых в отчет, и минимальные уровни записей из свойств browser.logs.
      */
     private final Map<LogType, Level> logTypesToSave;
 
+    /**
+     * Файл логов браузера текущего теста, свой для каждого потока выполнения тестов.
+     */
+    private final ThreadLocal<BrowserLogStream> browserLogs = new ThreadLocal<>();
+
+    /**
+     * Позиции уже прочитанных логов по экземплярам WebDriver: драйвер из пула переходит между тестами,
+     * и записи предыдущего теста не должны попасть в логи следующего.
+     */
+    private final Map<WebDriver, Map<LogType, LogCursor>> logCursors = Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * Объект AllureLifecycle для управления жизненным циклом тестов в Allure.
      */
     private final AllureLifecycle lifecycle;
 
+    /**
+     * Фоновый писатель вложений Allure.
+     */
+    private final AttachmentWriter attachmentWriter;
+
+    /**
+     * Хранилище вложений с дедупликацией по содержимому.
+     */
+    private final AttachmentStore attachmentStore;
+
+    /**
+     * Режим сохранения скриншотов и исходного кода страницы.
+     */
+    private final CaptureMode captureMode;
+
+    /**
+     * Кольцевой буфер последних снимков для режима ON_FAILURE, свой для каждого потока выполнения тестов.
+     */
+    private final ThreadLocal<FlightRecorder> flightRecorder;
+
+    /**
+     * Стратегия снятия скриншотов из свойств screenshots: область, максимальная ширина и формат.
+     */
+    private final ScreenshotStrategy screenshotStrategy;
+
     /**
      * Конструктор по умолчанию, который инициализирует необходимые параметры.
      */
@@ -74,38 +118,77 @@ public class CustomAllureSelenide extends AllureSelenide {
      * @param lifecycle объект AllureLifecycle
      */
     public CustomAllureSelenide(AllureLifecycle lifecycle) {
-        this.saveScreenshots = true;
-        this.savePageHtml = true;
+        this.saveScreenshots = Properties.testsProperties.attachmentsScreenshots();
+        this.savePageHtml = Properties.testsProperties.attachmentsPageSource();
         this.includeSelenideLocatorsSteps = true;
-        this.logTypesToSave = new HashMap<>();
+        this.logTypesToSave = logTypes();
         this.lifecycle = lifecycle;
+        this.attachmentWriter = new AttachmentWriter(lifecycle,
+                Properties.testsProperties.attachmentsQueueSize(),
+                Properties.testsProperties.attachmentsBackpressure());
+        this.attachmentStore = new AttachmentStore(lifecycle, this.attachmentWriter,
+                Properties.testsProperties.attachmentsGzipText());
+        this.captureMode = Properties.testsProperties.attachmentsCaptureMode();
+        this.flightRecorder = ThreadLocal.withInitial(() -> new FlightRecorder(
+                Properties.testsProperties.flightRecorderSize(),
+                Properties.testsProperties.flightRecorderMaxBytes()));
+        this.screenshotStrategy = ScreenshotStrategy.fromProperties();
     }
 
     /**
-     * Получает байты скриншота текущей страницы, если WebDriver был запущен.
+     * Завершает обработку вложений теста. При падении теста сохраняет снимки из кольцевого буфера,
+     * иначе отбрасывает их, прикладывает файл логов браузера, после чего ожидает записи вложений, поставленных
+     * в очередь потоком теста, чтобы отчет Allure содержал все вложения теста.
      *
-     * @return Optional, содержащий байты скриншота, или пустой Optional, если скриншот не может быть получен
+     * @param failed true, если тест упал
      */
-    private static Optional<byte[]> getScreenshotBytes() {
-        try {
-            return WebDriverRunner.hasWebDriverStarted() ?
-                    Optional.of(((TakesScreenshot)WebDriverRunner.getWebDriver()).getScreenshotAs(OutputType.BYTES)) :
-                    Optional.empty();
-        } catch (WebDriverException var1) {
-            LOGGER.warn("Не удалось получить скриншот", var1);
-            return Optional.empty();
+    public void finishTest(boolean failed) {
+        if (failed) {
+            this.lifecycle.getCurrentTestCaseOrStep().ifPresent((parentUuid) -> saveFlightRecorder());
+        }
+        this.flightRecorder.get().clear();
+        BrowserLogStream logs = this.browserLogs.get();
+        if (logs != null) {
+            this.browserLogs.remove();
+            if (this.lifecycle.getCurrentTestCaseOrStep().isPresent()) {
+                logs.attachTo(this.lifecycle);
+            } else {
+                logs.discard();
+            }
         }
+        this.attachmentWriter.flush(Properties.testsProperties.attachmentsFlushTimeoutMillis());
+    }
+
+    /**
+     * Выводит статистику дедупликации вложений и объема и времени снятия скриншотов за прогон.
+     */
+    public void reportAttachments() {
+        this.attachmentStore.report(Properties.testsProperties.attachmentsFlushTimeoutMillis());
+        this.screenshotStrategy.report();
     }
 
     /**
-     * Получает байты исходного кода текущей страницы, если WebDriver был запущен.
+     * Снимает скриншот текущей страницы по стратегии из свойств screenshots, если WebDriver был запущен.
+     * Уменьшение и перекодирование выполняются позже, в фоновом потоке записи.
      *
-     * @return Optional, содержащий байты исходного кода страницы, или пустой Optional, если исходный код не может быть получен
+     * @return Optional, содержащий байты PNG, или пустой Optional, если скриншот не может быть получен
      */
-    private static Optional<byte[]> getPageSourceBytes() {
+    private Optional<byte[]> getScreenshot() {
+        return WebDriverRunner.hasWebDriverStarted() ?
+                this.screenshotStrategy.capture(WebDriverRunner.getWebDriver()) :
+                Optional.empty();
+    }
+
+    /**
+     * Получает исходный код текущей страницы, если WebDriver был запущен.
+     * Кодирование в байты выполняется позже, в фоновом потоке записи.
+     *
+     * @return Optional, содержащий исходный код страницы, или пустой Optional, если исходный код не может быть получен
+     */
+    private static Optional<String> getPageSource() {
         try {
             return WebDriverRunner.hasWebDriverStarted() ?
-                    Optional.of(WebDriverRunner.getWebDriver().getPageSource().getBytes(StandardCharsets.UTF_8)) :
+                    Optional.of(WebDriverRunner.getWebDriver().getPageSource()) :
                     Optional.empty();
         } catch (WebDriverException var1) {
             LOGGER.warn("Не удалось получить исходный код страницы", var1);
@@ -114,14 +197,121 @@ public class CustomAllureSelenide extends AllureSelenide {
     }
 
     /**
-     * Получает логи браузера для указанного типа логов и уровня логирования.
+     * Возвращает настройки логирования WebDriver (goog:loggingPrefs) для типов логов из свойств browser.logs,
+     * без которых браузер не отдает логи.
+     *
+     * @return настройки логирования
+     */
+    public static LoggingPreferences loggingPreferences() {
+        LoggingPreferences preferences = new LoggingPreferences();
+        logTypes().forEach((logType, level) -> preferences.enable(logType.toString(), level));
+        return preferences;
+    }
+
+    /**
+     * Читает типы и уровень логов браузера из свойств.
+     *
+     * @return минимальные уровни записей по типам логов
+     */
+    private static Map<LogType, Level> logTypes() {
+        Map<LogType, Level> logTypes = new EnumMap<>(LogType.class);
+        Level level = Level.parse(Properties.testsProperties.browserLogsLevel());
+        Properties.testsProperties.browserLogsTypes().forEach(logType -> logTypes.put(logType, level));
+        return logTypes;
+    }
+
+    /**
+     * Дочитывает новые записи логов браузера текущего потока в файл логов теста.
+     * Вызывается после каждого события Selenide и перед возвратом WebDriver в пул.
+     */
+    public void collectBrowserLogs() {
+        if (this.logTypesToSave.isEmpty() || !WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        BrowserLogStream logs = this.browserLogs.get();
+        if (logs == null) {
+            try {
+                logs = new BrowserLogStream(Paths.get(Properties.testsProperties.browserLogsDir()),
+                        Properties.testsProperties.browserLogsMaxBytes());
+            } catch (IOException e) {
+                LOGGER.warn("Не удалось создать файл логов браузера", e);
+                return;
+            }
+            this.browserLogs.set(logs);
+        }
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        Map<LogType, LogCursor> cursors = this.logCursors.computeIfAbsent(driver, key -> new EnumMap<>(LogType.class));
+        for (Map.Entry<LogType, Level> logType : this.logTypesToSave.entrySet()) {
+            List<LogEntry> entries;
+            try {
+                entries = driver.manage().logs().get(logType.getKey().toString()).getAll();
+            } catch (WebDriverException e) {
+                LOGGER.debug("Не удалось получить логи браузера {}", logType.getKey(), e);
+                continue;
+            }
+            List<LogEntry> newEntries = cursors.computeIfAbsent(logType.getKey(), key -> new LogCursor()).advance(entries);
+            List<LogEntry> accepted = new ArrayList<>(newEntries.size());
+            for (LogEntry entry : newEntries) {
+                if (entry.getLevel().intValue() >= logType.getValue().intValue()) {
+                    accepted.add(entry);
+                }
+            }
+            logs.append(logType.getKey(), accepted);
+        }
+    }
+
+    /**
+     * Добавляет вложение к текущему шагу через хранилище вложений.
+     *
+     * @param name имя вложения
+     * @param type MIME-тип вложения
+     * @param fileExtension расширение файла вложения
+     * @param content содержимое вложения
+     */
+    private void attach(String name, String type, String fileExtension, byte[] content) {
+        this.attachmentStore.attach(name, type, fileExtension, content);
+    }
+
+    /**
+     * Добавляет скриншот к текущему шагу: скриншот уменьшается и перекодируется по стратегии при записи.
      *
-     * @param logType тип логов браузера
-     * @param level уровень логирования
-     * @return строка, содержащая логи браузера
+     * @param name имя вложения
+     * @param png байты PNG
+     */
+    private void attachScreenshot(String name, byte[] png) {
+        ScreenshotFormat format = this.screenshotStrategy.getFormat();
+        this.attachmentStore.attach(name, format.getMimeType(), format.getExtension(), png,
+                this.screenshotStrategy::encode);
+    }
+
+    /**
+     * Сохраняет снимки из кольцевого буфера в текущий шаг отчета Allure.
      */
-    private static String getBrowserLogs(LogType logType, Level level) {
-        return String.join("\n\n", Selenide.getWebDriverLogs(logType.toString(), level));
+    private void saveFlightRecorder() {
+        for (FlightRecorder.Snapshot snapshot : this.flightRecorder.get().drain()) {
+            if (snapshot.getScreenshot() != null) {
+                attachScreenshot("Screenshot: " + snapshot.getDescription(), snapshot.getScreenshot());
+            }
+            if (snapshot.getPageSource() != null) {
+                String pageSource = snapshot.getPageSource();
+                attach("Page source: " + snapshot.getDescription(), "text/html", "html",
+                        pageSource.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Выполняется перед событием Selenide: начинает шаг отчета Allure и сбрасывает элемент события,
+     * до которого обрезаются скриншоты области ELEMENT.
+     *
+     * @param event событие Selenide
+     */
+    @Override
+    public void beforeEvent(LogEvent event) {
+        super.beforeEvent(event);
+        if (this.screenshotStrategy.getScope() == ScreenshotScope.ELEMENT && WebDriverRunner.hasWebDriverStarted()) {
+            ElementTracker.reset(WebDriverRunner.getWebDriver());
+        }
     }
 
     /**
@@ -132,24 +322,26 @@ public class CustomAllureSelenide extends AllureSelenide {
     @Override
     public void afterEvent(LogEvent event) {
         this.lifecycle.getCurrentTestCaseOrStep().ifPresent((parentUuid) -> {
-            if (this.saveScreenshots) {
-                getScreenshotBytes().ifPresent((bytes) -> {
-                    this.lifecycle.addAttachment("Screenshot", "image/png", "png", bytes);
-                });
-            }
+            if (this.captureMode == CaptureMode.ON_FAILURE) {
+                this.flightRecorder.get().record(new FlightRecorder.Snapshot(event.toString(),
+                        this.saveScreenshots ? getScreenshot().orElse(null) : null,
+                        this.savePageHtml ? getPageSource().orElse(null) : null));
+                if (event.getStatus() == LogEvent.EventStatus.FAIL) {
+                    saveFlightRecorder();
+                }
+            } else {
+                if (this.saveScreenshots) {
+                    getScreenshot().ifPresent((png) -> attachScreenshot("Screenshot", png));
+                }
 
-            if (this.savePageHtml) {
-                getPageSourceBytes().ifPresent((bytes) -> {
-                    this.lifecycle.addAttachment("Page source", "text/html", "html", bytes);
-                });
+                if (this.savePageHtml) {
+                    getPageSource().ifPresent((pageSource) -> {
+                        attach("Page source", "text/html", "html", pageSource.getBytes(StandardCharsets.UTF_8));
+                    });
+                }
             }
 
-            if (!this.logTypesToSave.isEmpty()) {
-                this.logTypesToSave.forEach((logType, level) -> {
-                    byte[] content = getBrowserLogs(logType, level).getBytes(StandardCharsets.UTF_8);
-                    this.lifecycle.addAttachment("Logs from: " + logType, "application/json", ".txt", content);
-                });
-            }
+            collectBrowserLogs();
         });
 
         if (this.stepsShouldBeLogged(event)) {
@@ -184,4 +376,51 @@ public class CustomAllureSelenide extends AllureSelenide {
     private boolean stepsShouldBeLogged(LogEvent event) {
         return this.includeSelenideLocatorsSteps || !(event instanceof SelenideLog);
     }
+
+    /**
+     * Позиция уже прочитанных записей одного лога: время последней записи и количество записей с этим временем.
+     * WebDriver может отдавать как только новые записи, так и весь лог целиком; в обоих случаях
+     * возвращаются только записи, которые еще не были прочитаны.
+     */
+    private static final class LogCursor {
+
+        /**
+         * Время последней прочитанной записи.
+         */
+        private long timestamp = Long.MIN_VALUE;
+
+        /**
+         * Количество прочитанных записей со временем timestamp.
+         */
+        private int seenAtTimestamp;
+
+        /**
+         * Отбирает непрочитанные записи и сдвигает позицию.
+         *
+         * @param entries записи, полученные от WebDriver, в порядке времени
+         * @return непрочитанные записи
+         */
+        private List<LogEntry> advance(List<LogEntry> entries) {
+            List<LogEntry> result = new ArrayList<>();
+            int skipAtTimestamp = seenAtTimestamp;
+            for (LogEntry entry : entries) {
+                if (entry.getTimestamp() < timestamp) {
+                    continue;
+                }
+                if (entry.getTimestamp() == timestamp) {
+                    if (skipAtTimestamp > 0) {
+                        skipAtTimestamp--;
+                        continue;
+                    }
+                    seenAtTimestamp++;
+                } else {
+                    timestamp = entry.getTimestamp();
+                    seenAtTimestamp = 1;
+                    skipAtTimestamp = 0;
+                }
+                result.add(entry);
+            }
+            return result;
+        }
+    }
 }
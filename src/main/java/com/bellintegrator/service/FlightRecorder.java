@@ -0,0 +1,151 @@
+package com.bellintegrator.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Класс FlightRecorder хранит последние снимки страницы в кольцевом буфере фиксированного размера
+ * с ограничением по памяти. Самые старые снимки вытесняются при превышении любого из ограничений.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class FlightRecorder {
+
+    /**
+     * Максимальное количество хранимых снимков.
+     */
+    private final int capacity;
+
+    /**
+     * Максимальный суммарный объем хранимых снимков в байтах.
+     */
+    private final long maxBytes;
+
+    /**
+     * Снимки в порядке поступления.
+     */
+    private final Deque<Snapshot> snapshots = new ArrayDeque<>();
+
+    /**
+     * Текущий суммарный объем хранимых снимков в байтах.
+     */
+    private long usedBytes;
+
+    /**
+     * Конструктор, задающий ограничения буфера.
+     *
+     * @param capacity максимальное количество снимков
+     * @param maxBytes максимальный суммарный объем снимков в байтах
+     */
+    public FlightRecorder(int capacity, long maxBytes) {
+        this.capacity = Math.max(1, capacity);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Добавляет снимок в буфер, вытесняя самые старые снимки при необходимости.
+     *
+     * @param snapshot снимок страницы
+     */
+    public void record(Snapshot snapshot) {
+        snapshots.addLast(snapshot);
+        usedBytes += snapshot.size();
+        while (snapshots.size() > capacity || (usedBytes > maxBytes && snapshots.size() > 1)) {
+            usedBytes -= snapshots.removeFirst().size();
+        }
+    }
+
+    /**
+     * Извлекает все снимки из буфера в порядке поступления и очищает буфер.
+     *
+     * @return список снимков
+     */
+    public List<Snapshot> drain() {
+        List<Snapshot> result = new ArrayList<>(snapshots);
+        clear();
+        return result;
+    }
+
+    /**
+     * Очищает буфер без сохранения снимков.
+     */
+    public void clear() {
+        snapshots.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Снимок страницы после события Selenide.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Описание события Selenide, после которого сделан снимок.
+         */
+        private final String description;
+
+        /**
+         * Исходный PNG скриншота или null, если скриншот не снимался. Скриншот обрабатывается
+         * по стратегии только при сохранении снимка в отчет.
+         */
+        private final byte[] screenshot;
+
+        /**
+         * Исходный код страницы или null, если он не снимался.
+         */
+        private final String pageSource;
+
+        /**
+         * Конструктор снимка страницы.
+         *
+         * @param description описание события Selenide
+         * @param screenshot исходный PNG скриншота или null
+         * @param pageSource исходный код страницы или null
+         */
+        public Snapshot(String description, byte[] screenshot, String pageSource) {
+            this.description = description;
+            this.screenshot = screenshot;
+            this.pageSource = pageSource;
+        }
+
+        /**
+         * Возвращает описание события Selenide.
+         *
+         * @return описание события
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Возвращает исходный PNG скриншота.
+         *
+         * @return байты PNG или null
+         */
+        public byte[] getScreenshot() {
+            return screenshot;
+        }
+
+        /**
+         * Возвращает исходный код страницы.
+         *
+         * @return исходный код страницы или null
+         */
+        public String getPageSource() {
+            return pageSource;
+        }
+
+        /**
+         * Оценивает объем памяти, занимаемый снимком.
+         *
+         * @return объем снимка в байтах
+         */
+        long size() {
+            return (screenshot == null ? 0 : screenshot.length) + (pageSource == null ? 0 : 2L * pageSource.length());
+        }
+    }
+}
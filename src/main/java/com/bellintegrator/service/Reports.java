@@ -0,0 +1,63 @@
+package com.bellintegrator.service;
+
+import com.bellintegrator.properties.Properties;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Класс Reports записывает машиночитаемые отчеты прогона в каталог, заданный свойством reports.dir.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class Reports {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(Reports.class);
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private Reports() {
+    }
+
+    /**
+     * Записывает объект в файл отчета в формате JSON.
+     *
+     * @param fileName имя файла отчета
+     * @param content объект, сериализуемый в JSON
+     */
+    public static void writeJson(String fileName, Object content) {
+        writeText(fileName, JSON.toJson(content));
+    }
+
+    /**
+     * Записывает текст в файл отчета.
+     *
+     * @param fileName имя файла отчета
+     * @param content текст отчета
+     */
+    public static void writeText(String fileName, String content) {
+        Path file = Paths.get(Properties.testsProperties.reportsDir()).resolve(fileName);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось записать отчет {}", file, e);
+        }
+    }
+}
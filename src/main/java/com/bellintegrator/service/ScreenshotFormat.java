@@ -0,0 +1,60 @@
+package com.bellintegrator.service;
+
+/**
+ * Перечисление ScreenshotFormat определяет формат, в котором скриншот сохраняется в отчет Allure.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum ScreenshotFormat {
+
+    /**
+     * PNG без потерь, в котором скриншот отдает браузер.
+     */
+    PNG("image/png", "png"),
+
+    /**
+     * JPEG с потерями и качеством из свойства screenshots.jpeg.quality.
+     */
+    JPEG("image/jpeg", "jpg");
+
+    /**
+     * MIME-тип вложения.
+     */
+    private final String mimeType;
+
+    /**
+     * Расширение файла вложения.
+     */
+    private final String extension;
+
+    /**
+     * Конструктор формата.
+     *
+     * @param mimeType MIME-тип вложения
+     * @param extension расширение файла вложения
+     */
+    ScreenshotFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    /**
+     * Возвращает MIME-тип вложения.
+     *
+     * @return MIME-тип
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Возвращает расширение файла вложения.
+     *
+     * @return расширение без точки
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bellintegrator.service;
+
+/**
+ * Перечисление ScreenshotScope определяет, какая часть страницы попадает на скриншот.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public enum ScreenshotScope {
+
+    /**
+     * Видимая область окна браузера.
+     */
+    PAGE,
+
+    /**
+     * Элемент, с которым работало событие Selenide; если элемент не определен, снимается окно.
+     */
+    ELEMENT
+}
@@ -0,0 +1,357 @@
+package com.bellintegrator.service;
+
+import com.bellintegrator.metrics.LatencyHistogram;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.webdriver.ElementTracker;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс ScreenshotStrategy снимает скриншот выбранной области (окно или элемент события Selenide),
+ * уменьшает его до максимальной ширины и перекодирует в выбранный формат. Снятие выполняется в потоке теста
+ * и возвращает исходный PNG; уменьшение и перекодирование выполняются позже, в фоновом потоке записи вложений,
+ * и только для скриншотов, которые действительно сохраняются в отчет. Для каждой стратегии накапливается
+ * статистика: объем скриншота до и после обработки и время снятия и перекодирования.
+ * PNG без уменьшения сохраняется как есть, без декодирования.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class ScreenshotStrategy {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotStrategy.class);
+
+    /**
+     * Снимаемая область.
+     */
+    private final ScreenshotScope scope;
+
+    /**
+     * Формат сохранения.
+     */
+    private final ScreenshotFormat format;
+
+    /**
+     * Максимальная ширина в пикселях, 0 - без уменьшения.
+     */
+    private final int maxWidth;
+
+    /**
+     * Качество JPEG от 0 до 1.
+     */
+    private final float quality;
+
+    /**
+     * Количество снятых скриншотов.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Количество обработанных (сохраненных в отчет) скриншотов.
+     */
+    private final AtomicLong encodedCount = new AtomicLong();
+
+    /**
+     * Количество скриншотов области ELEMENT, снятых по всему окну, так как элемент не определен или недоступен.
+     */
+    private final AtomicLong pageFallbacks = new AtomicLong();
+
+    /**
+     * Суммарный объем скриншотов, полученных от браузера.
+     */
+    private final AtomicLong capturedBytes = new AtomicLong();
+
+    /**
+     * Суммарный объем обработанных скриншотов до обработки.
+     */
+    private final AtomicLong encodedSourceBytes = new AtomicLong();
+
+    /**
+     * Суммарный объем скриншотов после обработки.
+     */
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    /**
+     * Длительности снятия скриншота браузером.
+     */
+    private final LatencyHistogram captureTimes = new LatencyHistogram();
+
+    /**
+     * Длительности уменьшения и перекодирования.
+     */
+    private final LatencyHistogram encodeTimes = new LatencyHistogram();
+
+    /**
+     * Конструктор стратегии.
+     *
+     * @param scope снимаемая область
+     * @param format формат сохранения
+     * @param maxWidth максимальная ширина в пикселях, 0 - без уменьшения
+     * @param quality качество JPEG от 0 до 1
+     */
+    public ScreenshotStrategy(ScreenshotScope scope, ScreenshotFormat format, int maxWidth, float quality) {
+        this.scope = scope;
+        this.format = format;
+        this.maxWidth = Math.max(0, maxWidth);
+        this.quality = Math.max(0f, Math.min(1f, quality));
+    }
+
+    /**
+     * Создает стратегию из свойств screenshots.
+     *
+     * @return стратегия
+     */
+    public static ScreenshotStrategy fromProperties() {
+        return new ScreenshotStrategy(Properties.testsProperties.screenshotsScope(),
+                Properties.testsProperties.screenshotsFormat(),
+                Properties.testsProperties.screenshotsMaxWidth(),
+                Properties.testsProperties.screenshotsJpegQuality());
+    }
+
+    /**
+     * Возвращает имя стратегии вида "ELEMENT/JPEG q0.70/1280px".
+     *
+     * @return имя стратегии
+     */
+    public String getName() {
+        return scope + "/" + format
+                + (format == ScreenshotFormat.JPEG ? String.format(Locale.ROOT, " q%.2f", quality) : "")
+                + "/" + (maxWidth > 0 ? maxWidth + "px" : "native");
+    }
+
+    /**
+     * Возвращает снимаемую область.
+     *
+     * @return область
+     */
+    public ScreenshotScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Возвращает формат сохранения.
+     *
+     * @return формат
+     */
+    public ScreenshotFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Снимает скриншот выбранной области без обработки. Вызывается в потоке теста.
+     *
+     * @param driver экземпляр WebDriver
+     * @return байты PNG или пустой Optional, если браузер не отдал скриншот
+     */
+    public Optional<byte[]> capture(WebDriver driver) {
+        long start = System.nanoTime();
+        byte[] png;
+        try {
+            png = takeScreenshot(driver);
+        } catch (WebDriverException e) {
+            LOGGER.warn("Не удалось получить скриншот", e);
+            return Optional.empty();
+        }
+        count.incrementAndGet();
+        capturedBytes.addAndGet(png.length);
+        captureTimes.record(System.nanoTime() - start);
+        return Optional.of(png);
+    }
+
+    /**
+     * Уменьшает скриншот до максимальной ширины и кодирует в формат стратегии. Вызывается в фоновом потоке
+     * записи вложений. Если перекодировать не удалось, возвращается исходный PNG.
+     *
+     * @param png байты PNG, полученные от capture
+     * @return байты в формате стратегии
+     */
+    public byte[] encode(byte[] png) {
+        long start = System.nanoTime();
+        byte[] encoded;
+        try {
+            encoded = transcode(png);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось перекодировать скриншот, сохраняется исходный PNG", e);
+            encoded = png;
+        }
+        encodedCount.incrementAndGet();
+        encodedSourceBytes.addAndGet(png.length);
+        writtenBytes.addAndGet(encoded.length);
+        encodeTimes.record(System.nanoTime() - start);
+        return encoded;
+    }
+
+    /**
+     * Возвращает статистику стратегии: количество снятых и обработанных скриншотов, средний объем до и после
+     * обработки и перцентили времени снятия и перекодирования. Скриншоты, снятые в буфер FlightRecorder
+     * и отброшенные после успешного теста, не обрабатываются.
+     *
+     * @return статистика стратегии
+     */
+    public Map<String, Object> getStatistics() {
+        long screenshots = count.get();
+        long encoded = encodedCount.get();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("strategy", getName());
+        statistics.put("screenshots", screenshots);
+        statistics.put("encodedScreenshots", encoded);
+        statistics.put("pageFallbacks", pageFallbacks.get());
+        statistics.put("capturedBytes", capturedBytes.get());
+        statistics.put("averageSourceBytes", encoded == 0 ? 0 : encodedSourceBytes.get() / encoded);
+        statistics.put("writtenBytes", writtenBytes.get());
+        statistics.put("averageBytes", encoded == 0 ? 0 : writtenBytes.get() / encoded);
+        statistics.put("captureP50Millis", captureTimes.percentileMillis(50));
+        statistics.put("captureP95Millis", captureTimes.percentileMillis(95));
+        statistics.put("encodeP50Millis", encodeTimes.percentileMillis(50));
+        statistics.put("encodeP95Millis", encodeTimes.percentileMillis(95));
+        statistics.put("averageTotalMillis", (screenshots == 0 ? 0.0 : captureTimes.getSumMillis() / screenshots)
+                + (encoded == 0 ? 0.0 : encodeTimes.getSumMillis() / encoded));
+        return statistics;
+    }
+
+    /**
+     * Выводит статистику стратегии в лог и записывает ее в файл отчета screenshots.json.
+     */
+    public void report() {
+        if (count.get() == 0) {
+            return;
+        }
+        Map<String, Object> statistics = getStatistics();
+        LOGGER.info("Скриншоты: {}", statistics);
+        Reports.writeJson("screenshots.json", statistics);
+    }
+
+    /**
+     * Снимает PNG выбранной области. Для области ELEMENT снимается элемент события Selenide,
+     * а если он не определен или недоступен (например, удален со страницы), то окно.
+     *
+     * @param driver экземпляр WebDriver
+     * @return байты PNG
+     */
+    private byte[] takeScreenshot(WebDriver driver) {
+        if (scope == ScreenshotScope.ELEMENT) {
+            Optional<WebElement> element = ElementTracker.target(driver);
+            if (element.isPresent()) {
+                try {
+                    return element.get().getScreenshotAs(OutputType.BYTES);
+                } catch (WebDriverException e) {
+                    LOGGER.debug("Не удалось снять скриншот элемента, снимается окно", e);
+                }
+            }
+            pageFallbacks.incrementAndGet();
+        }
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    }
+
+    /**
+     * Уменьшает скриншот до максимальной ширины и кодирует в формат стратегии.
+     *
+     * @param png байты PNG
+     * @return байты в формате стратегии
+     * @throws IOException если изображение не удалось прочитать или записать
+     */
+    private byte[] transcode(byte[] png) throws IOException {
+        if (format == ScreenshotFormat.PNG && maxWidth == 0) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Скриншот не является изображением PNG");
+        }
+        boolean scale = maxWidth > 0 && image.getWidth() > maxWidth;
+        if (format == ScreenshotFormat.PNG && !scale) {
+            return png;
+        }
+        int width = scale ? maxWidth : image.getWidth();
+        int height = scale ? Math.max(1, Math.round((float) image.getHeight() * maxWidth / image.getWidth()))
+                : image.getHeight();
+        BufferedImage target = redraw(image, width, height,
+                format == ScreenshotFormat.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+        if (format == ScreenshotFormat.JPEG) {
+            writeJpeg(target, out);
+        } else if (!ImageIO.write(target, "png", out)) {
+            throw new IOException("Нет кодировщика PNG");
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Перерисовывает изображение в заданный размер и тип пикселей. Прозрачные области заливаются белым,
+     * так как JPEG не поддерживает прозрачность.
+     *
+     * @param image исходное изображение
+     * @param width ширина
+     * @param height высота
+     * @param type тип пикселей BufferedImage
+     * @return новое изображение
+     */
+    private static BufferedImage redraw(BufferedImage image, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Кодирует изображение в JPEG с качеством стратегии. Поток пишется в память, без временных файлов ImageIO.
+     *
+     * @param image изображение без прозрачности
+     * @param out поток для записи
+     * @throws IOException если изображение не удалось записать
+     */
+    private void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("Нет кодировщика JPEG");
+        }
+        ImageWriter writer = writers.next();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parameters.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
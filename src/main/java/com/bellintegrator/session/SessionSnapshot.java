@@ -0,0 +1,197 @@
+package com.bellintegrator.session;
+
+import org.openqa.selenium.Cookie;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс SessionSnapshot хранит состояние браузера после подготовительных действий теста:
+ * cookies, local storage и session storage, адрес, с которого начиналась подготовка, и адрес, на котором
+ * она закончилась. Снимок сериализуется в JSON как словарь значений.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class SessionSnapshot {
+
+    /**
+     * Версия формата и данных снимка из свойства session.snapshot.version.
+     */
+    private final String version;
+
+    /**
+     * Время создания снимка в миллисекундах.
+     */
+    private final long createdAt;
+
+    /**
+     * Адрес, с которого начинались подготовительные действия.
+     */
+    private final String startUrl;
+
+    /**
+     * Адрес страницы, на которой закончились подготовительные действия.
+     */
+    private final String url;
+
+    /**
+     * Cookies браузера.
+     */
+    private final List<Cookie> cookies;
+
+    /**
+     * Содержимое local storage.
+     */
+    private final Map<String, String> localStorage;
+
+    /**
+     * Содержимое session storage.
+     */
+    private final Map<String, String> sessionStorage;
+
+    /**
+     * Конструктор снимка.
+     *
+     * @param version версия снимка
+     * @param createdAt время создания в миллисекундах
+     * @param startUrl адрес начала подготовительных действий
+     * @param url адрес страницы после подготовительных действий
+     * @param cookies cookies браузера
+     * @param localStorage содержимое local storage
+     * @param sessionStorage содержимое session storage
+     */
+    public SessionSnapshot(String version, long createdAt, String startUrl, String url, List<Cookie> cookies,
+                           Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.startUrl = startUrl;
+        this.url = url;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+    }
+
+    /**
+     * Возвращает версию снимка.
+     *
+     * @return версия снимка
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Возвращает время создания снимка.
+     *
+     * @return время создания в миллисекундах
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Возвращает адрес начала подготовительных действий.
+     *
+     * @return адрес
+     */
+    public String getStartUrl() {
+        return startUrl;
+    }
+
+    /**
+     * Возвращает адрес страницы после подготовительных действий.
+     *
+     * @return адрес
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Возвращает cookies браузера.
+     *
+     * @return cookies
+     */
+    public List<Cookie> getCookies() {
+        return cookies;
+    }
+
+    /**
+     * Возвращает содержимое local storage.
+     *
+     * @return значения по ключам
+     */
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    /**
+     * Возвращает содержимое session storage.
+     *
+     * @return значения по ключам
+     */
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    /**
+     * Преобразует снимок в словарь для записи в JSON.
+     *
+     * @return словарь значений снимка
+     */
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> cookieMaps = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", cookie.getName());
+            map.put("value", cookie.getValue());
+            map.put("domain", cookie.getDomain());
+            map.put("path", cookie.getPath());
+            map.put("expiry", cookie.getExpiry() == null ? null : cookie.getExpiry().getTime());
+            map.put("secure", cookie.isSecure());
+            map.put("httpOnly", cookie.isHttpOnly());
+            map.put("sameSite", cookie.getSameSite());
+            cookieMaps.add(map);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("version", version);
+        map.put("createdAt", createdAt);
+        map.put("startUrl", startUrl);
+        map.put("url", url);
+        map.put("cookies", cookieMaps);
+        map.put("localStorage", localStorage);
+        map.put("sessionStorage", sessionStorage);
+        return map;
+    }
+
+    /**
+     * Восстанавливает снимок из словаря, прочитанного из JSON.
+     *
+     * @param map словарь значений снимка
+     * @return снимок
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionSnapshot fromMap(Map<String, Object> map) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (Map<String, Object> cookieMap : (List<Map<String, Object>>) map.get("cookies")) {
+            Cookie.Builder builder = new Cookie.Builder((String) cookieMap.get("name"), (String) cookieMap.get("value"))
+                    .domain((String) cookieMap.get("domain"))
+                    .path((String) cookieMap.get("path"))
+                    .isSecure(Boolean.TRUE.equals(cookieMap.get("secure")))
+                    .isHttpOnly(Boolean.TRUE.equals(cookieMap.get("httpOnly")))
+                    .sameSite((String) cookieMap.get("sameSite"));
+            Object expiry = cookieMap.get("expiry");
+            if (expiry instanceof Number) {
+                builder.expiresOn(new Date(((Number) expiry).longValue()));
+            }
+            cookies.add(builder.build());
+        }
+        return new SessionSnapshot((String) map.get("version"), ((Number) map.get("createdAt")).longValue(),
+                (String) map.get("startUrl"), (String) map.get("url"), cookies,
+                (Map<String, String>) map.get("localStorage"), (Map<String, String>) map.get("sessionStorage"));
+    }
+}
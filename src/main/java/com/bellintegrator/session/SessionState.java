@@ -0,0 +1,239 @@
+package com.bellintegrator.session;
+
+import com.bellintegrator.metrics.StepTimings;
+import com.bellintegrator.properties.Properties;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс SessionState сохраняет состояние браузера после подготовительных действий теста (открытие сайта,
+ * переход по меню каталога, ответы на всплывающие окна) и восстанавливает его в новый или взятый из пула
+ * браузер: cookies и local/session storage переносятся на страницу того же сайта, после чего открывается адрес,
+ * на котором закончилась подготовка. Снимки хранятся в памяти и в каталоге session.snapshot.dir, чтобы ими
+ * пользовались и следующие запуски. Снимок считается устаревшим, если он старше session.snapshot.max.age.minutes,
+ * его версия отличается от session.snapshot.version или подготовка начиналась с другого адреса.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class SessionState {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionState.class);
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Скрипт чтения local storage и session storage.
+     */
+    private static final String READ_STORAGE_SCRIPT =
+            "var read = function (storage) {" +
+            "  var result = {};" +
+            "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); result[key] = storage.getItem(key); }" +
+            "  return result;" +
+            "};" +
+            "return [read(window.localStorage), read(window.sessionStorage)];";
+
+    /**
+     * Скрипт записи local storage и session storage.
+     */
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var write = function (storage, values) {" +
+            "  for (var key in values) { storage.setItem(key, values[key]); }" +
+            "};" +
+            "write(window.localStorage, arguments[0]); write(window.sessionStorage, arguments[1]);";
+
+    /**
+     * Снимки, сохраненные или прочитанные в этом запуске, по ключу.
+     */
+    private static final Map<String, SessionSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private SessionState() {
+    }
+
+    /**
+     * Сохраняет состояние браузера текущего потока после подготовительных действий.
+     * Снимки с одним ключом, но разными начальными адресами хранятся отдельно.
+     *
+     * @param key ключ снимка
+     * @param startUrl адрес, с которого начинались подготовительные действия
+     */
+    public static void capture(String key, String startUrl) {
+        if (!Properties.testsProperties.sessionSnapshotEnabled()) {
+            return;
+        }
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        List<Map<String, String>> storage = Selenide.executeJavaScript(READ_STORAGE_SCRIPT);
+        SessionSnapshot snapshot = new SessionSnapshot(Properties.testsProperties.sessionSnapshotVersion(),
+                System.currentTimeMillis(), startUrl, driver.getCurrentUrl(),
+                new ArrayList<>(driver.manage().getCookies()), storage.get(0), storage.get(1));
+        String snapshotKey = snapshotKey(key, startUrl);
+        SNAPSHOTS.put(snapshotKey, snapshot);
+        write(snapshotKey, snapshot);
+        LOGGER.info("Сохранена сессия {}: {} cookies, адрес {}", key, snapshot.getCookies().size(), snapshot.getUrl());
+    }
+
+    /**
+     * Восстанавливает сохраненное состояние в браузер текущего потока и открывает адрес,
+     * на котором закончились подготовительные действия.
+     *
+     * @param key ключ снимка
+     * @param startUrl адрес, с которого начинаются подготовительные действия
+     * @return true, если сессия восстановлена; false, если подходящего снимка нет или восстановить его не удалось
+     */
+    public static boolean restore(String key, String startUrl) {
+        if (!Properties.testsProperties.sessionSnapshotEnabled()) {
+            return false;
+        }
+        String snapshotKey = snapshotKey(key, startUrl);
+        SessionSnapshot snapshot = SNAPSHOTS.computeIfAbsent(snapshotKey, SessionState::read);
+        if (snapshot == null || !isValid(snapshotKey, snapshot, startUrl)) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        try {
+            Selenide.open(URI.create(snapshot.getUrl())
+                    .resolve(Properties.testsProperties.sessionRestoreEntryPath()).toString());
+            Date now = new Date();
+            int restored = 0;
+            for (Cookie cookie : snapshot.getCookies()) {
+                if (cookie.getExpiry() != null && cookie.getExpiry().before(now)) {
+                    continue;
+                }
+                try {
+                    driver.manage().addCookie(cookie);
+                    restored++;
+                } catch (WebDriverException e) {
+                    LOGGER.debug("Не удалось восстановить cookie {}", cookie.getName(), e);
+                }
+            }
+            Selenide.executeJavaScript(WRITE_STORAGE_SCRIPT, snapshot.getLocalStorage(), snapshot.getSessionStorage());
+            Selenide.open(snapshot.getUrl());
+            LOGGER.info("Восстановлена сессия {}: {} из {} cookies", key, restored, snapshot.getCookies().size());
+        } catch (WebDriverException e) {
+            LOGGER.warn("Не удалось восстановить сессию {}, выполняется подготовка через интерфейс", key, e);
+            SNAPSHOTS.remove(snapshotKey, snapshot);
+            driver.manage().deleteAllCookies();
+            return false;
+        }
+        StepTimings.record("session.restore", System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Возвращает ключ хранения снимка: ключ теста вместе с начальным адресом подготовки.
+     *
+     * @param key ключ снимка
+     * @param startUrl адрес, с которого начинаются подготовительные действия
+     * @return ключ хранения снимка
+     */
+    private static String snapshotKey(String key, String startUrl) {
+        return key + "@" + startUrl;
+    }
+
+    /**
+     * Проверяет, что снимок не устарел.
+     *
+     * @param key ключ хранения снимка
+     * @param snapshot снимок
+     * @param startUrl адрес, с которого начинаются подготовительные действия
+     * @return true, если снимок можно восстановить
+     */
+    private static boolean isValid(String key, SessionSnapshot snapshot, String startUrl) {
+        String reason = null;
+        if (!Properties.testsProperties.sessionSnapshotVersion().equals(snapshot.getVersion())) {
+            reason = "версия " + snapshot.getVersion();
+        } else if (System.currentTimeMillis() - snapshot.getCreatedAt()
+                > TimeUnit.MINUTES.toMillis(Properties.testsProperties.sessionSnapshotMaxAgeMinutes())) {
+            reason = "истек срок";
+        } else if (!startUrl.equals(snapshot.getStartUrl())) {
+            reason = "начальный адрес " + snapshot.getStartUrl();
+        }
+        if (reason == null) {
+            return true;
+        }
+        LOGGER.info("Снимок сессии {} устарел: {}", key, reason);
+        SNAPSHOTS.remove(key, snapshot);
+        return false;
+    }
+
+    /**
+     * Читает снимок из каталога снимков.
+     *
+     * @param key ключ хранения снимка
+     * @return снимок или null, если файла нет или он поврежден
+     */
+    private static SessionSnapshot read(String key) {
+        Path file = file(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return SessionSnapshot.fromMap(JSON.toType(reader, Json.MAP_TYPE));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось прочитать снимок сессии {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Записывает снимок в каталог снимков через временный файл, чтобы параллельные тесты не читали его недописанным.
+     * Ошибка записи только выводится в лог: снимок остается в памяти, а тест продолжается.
+     *
+     * @param key ключ хранения снимка
+     * @param snapshot снимок
+     */
+    private static void write(String key, SessionSnapshot snapshot) {
+        Path file = file(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "session", ".tmp");
+            Files.write(temp, JSON.toJson(snapshot.toMap()).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось записать снимок сессии {}", file, e);
+        }
+    }
+
+    /**
+     * Возвращает файл снимка.
+     *
+     * @param key ключ хранения снимка
+     * @return путь к файлу
+     */
+    private static Path file(String key) {
+        return Paths.get(Properties.testsProperties.sessionSnapshotDir())
+                .resolve(key.replaceAll("[^\\p{L}\\p{N}._-]", "_") + ".json");
+    }
+}
@@ -0,0 +1,228 @@
+package com.bellintegrator.smoke;
+
+import com.bellintegrator.locators.CitilinkLocators;
+import com.bellintegrator.service.Reports;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Класс HttpSmokeRunner выполняет проверки страниц без браузера: загружает HTML через HttpClient
+ * и ищет названия продуктов в HTML, отрисованном сервером, тем же CSS-селектором, что и page object.
+ * Каждая проверка выполняется в отдельном виртуальном потоке, если JVM их поддерживает (Java 21+),
+ * иначе в пуле потоков. Число одновременных запросов к сайту ограничено.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class HttpSmokeRunner implements AutoCloseable {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpSmokeRunner.class);
+
+    /**
+     * User-Agent запросов: сайт отдает полноценную страницу только браузерам.
+     */
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/117.0 Safari/537.36";
+
+    /**
+     * CSS-селектор названий продуктов.
+     */
+    private static final String PRODUCT_TITLES = CitilinkLocators.PRODUCT_TITLES.expression();
+
+    /**
+     * Исполнитель проверок.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Ограничение числа одновременных запросов.
+     */
+    private final Semaphore permits;
+
+    /**
+     * HTTP-клиент.
+     */
+    private final HttpClient client;
+
+    /**
+     * Таймаут запроса.
+     */
+    private final Duration requestTimeout;
+
+    /**
+     * Конструктор исполнителя проверок.
+     *
+     * @param maxConcurrency наибольшее число одновременных запросов
+     * @param requestTimeout таймаут запроса
+     */
+    public HttpSmokeRunner(int maxConcurrency, Duration requestTimeout) {
+        this.executor = newExecutor(maxConcurrency);
+        this.permits = new Semaphore(maxConcurrency);
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Выполняет проверки параллельно и дожидается всех результатов.
+     *
+     * @param checks проверки
+     * @return результаты в порядке проверок
+     */
+    public List<SmokeResult> run(List<SmokeCheck> checks) {
+        List<CompletableFuture<SmokeResult>> futures = checks.stream()
+                .map(check -> CompletableFuture.supplyAsync(() -> runLimited(check), executor))
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * Выполняет проверку, дождавшись разрешения на запрос.
+     *
+     * @param check проверка
+     * @return результат проверки
+     */
+    private SmokeResult runLimited(SmokeCheck check) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SmokeResult(check, -1, 0, 0, 0, "Прервано ожидание запроса");
+        }
+        try {
+            return execute(check);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Загружает страницу и проверяет названия продуктов.
+     *
+     * @param check проверка
+     * @return результат проверки
+     */
+    private SmokeResult execute(SmokeCheck check) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(HttpRequest.newBuilder(URI.create(check.getUrl()))
+                    .timeout(requestTimeout)
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept", "text/html")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException | IllegalArgumentException e) {
+            return new SmokeResult(check, -1, 0, 0, elapsedMillis(start), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SmokeResult(check, -1, 0, 0, elapsedMillis(start), "Прерван запрос");
+        }
+        if (response.statusCode() != 200) {
+            return new SmokeResult(check, response.statusCode(), 0, 0, elapsedMillis(start),
+                    "Код ответа " + response.statusCode());
+        }
+        Document document = Jsoup.parse(new String(response.body(), StandardCharsets.UTF_8), check.getUrl());
+        Elements titles = document.select(PRODUCT_TITLES);
+        int matched = 0;
+        for (Element title : titles) {
+            if (title.text().contains(check.getExpectedText())) {
+                matched++;
+            }
+        }
+        String error = null;
+        if (titles.isEmpty()) {
+            error = "На странице нет названий продуктов";
+        } else if (matched == 0) {
+            error = "Ни одно из " + titles.size() + " названий не содержит " + check.getExpectedText();
+        }
+        return new SmokeResult(check, response.statusCode(), titles.size(), matched, elapsedMillis(start), error);
+    }
+
+    /**
+     * Выводит итоги проверок в лог и записывает их в файл отчета http-smoke.json.
+     *
+     * @param results результаты проверок
+     * @param wallMillis общее время выполнения
+     * @return итоги проверок
+     */
+    public static Map<String, Object> report(List<SmokeResult> results, long wallMillis) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("checks", results.size());
+        summary.put("failed", results.stream().filter(result -> !result.isPassed()).count());
+        summary.put("wallMillis", wallMillis);
+        summary.put("maxCheckMillis", results.stream().mapToLong(SmokeResult::getDurationMillis).max().orElse(0));
+        List<Map<String, Object>> details = new ArrayList<>();
+        results.forEach(result -> details.add(result.toMap()));
+        summary.put("results", details);
+        LOGGER.info("Проверки без браузера: {} проверок, {} упало, {} мс",
+                summary.get("checks"), summary.get("failed"), wallMillis);
+        Reports.writeJson("http-smoke.json", summary);
+        return summary;
+    }
+
+    /**
+     * Создает исполнитель на виртуальных потоках, если они доступны, иначе пул потоков.
+     * Проект собирается под Java 11, а виртуальные потоки появились в Java 21, поэтому метод ищется через reflection.
+     *
+     * @param maxConcurrency размер пула при отсутствии виртуальных потоков
+     * @return исполнитель
+     */
+    private static ExecutorService newExecutor(int maxConcurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.info("Виртуальные потоки недоступны, используется пул из {} потоков", maxConcurrency);
+            return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+                Thread thread = new Thread(runnable, "http-smoke");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Вычисляет время, прошедшее с момента начала.
+     *
+     * @param start момент начала в наносекундах
+     * @return прошедшее время в миллисекундах
+     */
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Останавливает исполнитель проверок.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
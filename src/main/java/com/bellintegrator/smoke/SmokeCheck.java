@@ -0,0 +1,61 @@
+package com.bellintegrator.smoke;
+
+/**
+ * Класс SmokeCheck описывает проверку страницы без браузера: адрес должен открываться,
+ * а среди названий продуктов в HTML, отрисованном сервером, должно быть название с ожидаемым текстом.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class SmokeCheck {
+
+    /**
+     * Адрес страницы.
+     */
+    private final String url;
+
+    /**
+     * Текст, который должен содержаться в названии продукта.
+     */
+    private final String expectedText;
+
+    /**
+     * Конструктор проверки.
+     *
+     * @param url адрес страницы
+     * @param expectedText текст, который должен содержаться в названии продукта
+     */
+    public SmokeCheck(String url, String expectedText) {
+        this.url = url;
+        this.expectedText = expectedText;
+    }
+
+    /**
+     * Возвращает адрес страницы.
+     *
+     * @return адрес страницы
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Возвращает текст, который должен содержаться в названии продукта.
+     *
+     * @return ожидаемый текст
+     */
+    public String getExpectedText() {
+        return expectedText;
+    }
+
+    /**
+     * Возвращает описание проверки.
+     *
+     * @return адрес и ожидаемый текст
+     */
+    @Override
+    public String toString() {
+        return url + " -> " + expectedText;
+    }
+}
@@ -0,0 +1,116 @@
+package com.bellintegrator.smoke;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс SmokeResult содержит результат проверки страницы без браузера.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class SmokeResult {
+
+    /**
+     * Выполненная проверка.
+     */
+    private final SmokeCheck check;
+
+    /**
+     * Код статуса ответа или -1, если ответ не получен.
+     */
+    private final int status;
+
+    /**
+     * Количество названий продуктов на странице.
+     */
+    private final int titles;
+
+    /**
+     * Количество названий продуктов, содержащих ожидаемый текст.
+     */
+    private final int matched;
+
+    /**
+     * Длительность запроса и разбора страницы.
+     */
+    private final long durationMillis;
+
+    /**
+     * Описание ошибки или null, если проверка прошла.
+     */
+    private final String error;
+
+    /**
+     * Конструктор результата.
+     *
+     * @param check выполненная проверка
+     * @param status код статуса ответа
+     * @param titles количество названий продуктов
+     * @param matched количество названий с ожидаемым текстом
+     * @param durationMillis длительность проверки
+     * @param error описание ошибки или null
+     */
+    public SmokeResult(SmokeCheck check, int status, int titles, int matched, long durationMillis, String error) {
+        this.check = check;
+        this.status = status;
+        this.titles = titles;
+        this.matched = matched;
+        this.durationMillis = durationMillis;
+        this.error = error;
+    }
+
+    /**
+     * Определяет, прошла ли проверка.
+     *
+     * @return true, если ошибок нет
+     */
+    public boolean isPassed() {
+        return error == null;
+    }
+
+    /**
+     * Возвращает выполненную проверку.
+     *
+     * @return проверка
+     */
+    public SmokeCheck getCheck() {
+        return check;
+    }
+
+    /**
+     * Возвращает длительность проверки.
+     *
+     * @return длительность в миллисекундах
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Возвращает описание ошибки.
+     *
+     * @return описание ошибки или null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Преобразует результат в карту для отчета.
+     *
+     * @return поля результата
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("url", check.getUrl());
+        map.put("expectedText", check.getExpectedText());
+        map.put("status", status);
+        map.put("titles", titles);
+        map.put("matched", matched);
+        map.put("durationMillis", durationMillis);
+        map.put("error", error);
+        return map;
+    }
+}
@@ -0,0 +1,220 @@
+package com.bellintegrator.waits;
+
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.Reports;
+import com.codeborne.selenide.Configuration;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Класс AdaptiveTimeouts подбирает таймаут каждого ожидания по времени, за которое оно успешно завершалось
+ * в прошлых прогонах: перцентиль wait.adaptive.percentile последних wait.adaptive.samples замеров, умноженный
+ * на запас wait.adaptive.margin и ограниченный снизу и сверху свойствами wait.adaptive.floor.millis
+ * и wait.adaptive.ceiling.millis. Пока замеров меньше wait.adaptive.min.samples, используется общий таймаут
+ * Selenide. Свойство wait.timeout.ключ задает таймаут ожидания явно. Замеры хранятся в файле wait.adaptive.file.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class AdaptiveTimeouts {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveTimeouts.class);
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Замеры прошлых прогонов по ключу ожидания, в миллисекундах.
+     */
+    private static final Map<String, List<Long>> HISTORY = new ConcurrentHashMap<>();
+
+    /**
+     * Замеры текущего прогона по ключу ожидания, в миллисекундах.
+     */
+    private static final Map<String, List<Long>> CURRENT = new ConcurrentHashMap<>();
+
+    /**
+     * Признак загрузки истории.
+     */
+    private static volatile boolean loaded;
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private AdaptiveTimeouts() {
+    }
+
+    /**
+     * Выполняет ожидание, которое при неудаче выбрасывает исключение, с подобранным таймаутом
+     * и запоминает время успешного ожидания.
+     *
+     * @param key ключ ожидания
+     * @param wait ожидание, принимающее таймаут
+     */
+    public static void await(String key, Consumer<Duration> wait) {
+        long start = System.nanoTime();
+        wait.accept(timeout(key));
+        record(key, System.nanoTime() - start);
+    }
+
+    /**
+     * Возвращает таймаут ожидания.
+     *
+     * @param key ключ ожидания
+     * @return таймаут
+     */
+    public static Duration timeout(String key) {
+        String override = Properties.testsProperties.getProperty("wait.timeout." + key);
+        if (override != null && !override.trim().isEmpty()) {
+            return Duration.ofMillis(Long.parseLong(override.trim()));
+        }
+        if (!Properties.testsProperties.waitAdaptiveEnabled()) {
+            return Duration.ofMillis(Configuration.timeout);
+        }
+        List<Long> samples = samples(key);
+        if (samples.size() < Properties.testsProperties.waitAdaptiveMinSamples()) {
+            return Duration.ofMillis(Configuration.timeout);
+        }
+        Collections.sort(samples);
+        int rank = (int) Math.ceil(Properties.testsProperties.waitAdaptivePercentile() * samples.size());
+        long percentile = samples.get(Math.min(samples.size(), Math.max(1, rank)) - 1);
+        long timeout = Math.round(percentile * Properties.testsProperties.waitAdaptiveMargin());
+        return Duration.ofMillis(Math.max(Properties.testsProperties.waitAdaptiveFloorMillis(),
+                Math.min(Properties.testsProperties.waitAdaptiveCeilingMillis(), timeout)));
+    }
+
+    /**
+     * Запоминает время успешного ожидания.
+     *
+     * @param key ключ ожидания
+     * @param nanos время ожидания в наносекундах
+     */
+    public static void record(String key, long nanos) {
+        List<Long> samples = CURRENT.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()));
+        samples.add(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Дописывает замеры текущего прогона в файл истории, оставляя последние wait.adaptive.samples замеров
+     * каждого ожидания, и записывает подобранные таймауты в файл отчета wait-timeouts.json.
+     * Файл перечитывается перед записью, чтобы не потерять замеры других исполнителей.
+     */
+    public static synchronized void save() {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(Properties.testsProperties.waitAdaptiveFile());
+        Map<String, List<Long>> stored = new TreeMap<>(read(file));
+        int limit = Properties.testsProperties.waitAdaptiveSamples();
+        CURRENT.forEach((key, samples) -> {
+            List<Long> merged = new ArrayList<>(stored.getOrDefault(key, Collections.emptyList()));
+            synchronized (samples) {
+                merged.addAll(samples);
+                samples.clear();
+            }
+            stored.put(key, new ArrayList<>(merged.subList(Math.max(0, merged.size() - limit), merged.size())));
+        });
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, JSON.toJson(stored).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось сохранить замеры ожиданий {}", file, e);
+        }
+        HISTORY.clear();
+        HISTORY.putAll(stored);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        stored.forEach((key, samples) -> report.put(key, timeout(key).toMillis()));
+        LOGGER.info("Таймауты ожиданий, мс: {}", report);
+        Reports.writeJson("wait-timeouts.json", report);
+    }
+
+    /**
+     * Возвращает замеры ожидания из истории и текущего прогона, последние wait.adaptive.samples.
+     *
+     * @param key ключ ожидания
+     * @return копия замеров в миллисекундах
+     */
+    private static List<Long> samples(String key) {
+        load();
+        List<Long> samples = new ArrayList<>(HISTORY.getOrDefault(key, Collections.emptyList()));
+        List<Long> current = CURRENT.get(key);
+        if (current != null) {
+            synchronized (current) {
+                samples.addAll(current);
+            }
+        }
+        int limit = Properties.testsProperties.waitAdaptiveSamples();
+        return new ArrayList<>(samples.subList(Math.max(0, samples.size() - limit), samples.size()));
+    }
+
+    /**
+     * Загружает историю из файла один раз за прогон.
+     */
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (AdaptiveTimeouts.class) {
+            if (!loaded) {
+                HISTORY.putAll(read(Paths.get(Properties.testsProperties.waitAdaptiveFile())));
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Читает файл замеров.
+     *
+     * @param file файл замеров
+     * @return замеры по ключу ожидания или пустой словарь, если файла нет или он поврежден
+     */
+    private static Map<String, List<Long>> read(Path file) {
+        Map<String, List<Long>> result = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Object> raw = JSON.toType(reader, Json.MAP_TYPE);
+            raw.forEach((key, value) -> {
+                List<Long> samples = new ArrayList<>();
+                if (value instanceof List) {
+                    for (Object sample : (List<?>) value) {
+                        if (sample instanceof Number) {
+                            samples.add(((Number) sample).longValue());
+                        }
+                    }
+                }
+                result.put(key, samples);
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось прочитать замеры ожиданий {}", file, e);
+        }
+        return result;
+    }
+}
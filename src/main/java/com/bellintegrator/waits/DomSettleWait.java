@@ -0,0 +1,138 @@
+package com.bellintegrator.waits;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.WebDriver;
+import java.time.Duration;
+
+/**
+ * Класс DomSettleWait ожидает, пока область страницы обновится после действия пользователя.
+ * Перед действием в страницу устанавливаются MutationObserver и счетчик незавершенных fetch/XHR запросов;
+ * после действия ожидание завершается, когда область изменилась и сеть простаивает заданное окно тишины.
+ * Все ожидание выполняется внутри браузера за один асинхронный вызов JavaScript.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class DomSettleWait {
+
+    /**
+     * Скрипт, устанавливающий счетчик запросов (один раз на документ) и наблюдатель изменений области.
+     * Область может состоять из нескольких элементов, например карточек списка. Изменением области считаются
+     * изменения внутри ее элементов, а также добавление или удаление элементов области;
+     * изменения в ее предках (баннеры, счетчики в общей обертке) не учитываются.
+     */
+    private static final String ARM_SCRIPT =
+            "var selector = arguments[0];" +
+            "var s = window.__domSettle;" +
+            "if (!s) {" +
+            "  s = window.__domSettle = {inflight: 0, lastActivity: Date.now(), changed: false, observer: null};" +
+            "  var touch = function () { s.lastActivity = Date.now(); };" +
+            "  if (window.fetch) {" +
+            "    var originalFetch = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      s.inflight++; touch();" +
+            "      return originalFetch.apply(this, arguments).finally(function () { s.inflight--; touch(); });" +
+            "    };" +
+            "  }" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    s.inflight++; touch();" +
+            "    this.addEventListener('loadend', function () { s.inflight--; touch(); });" +
+            "    return originalSend.apply(this, arguments);" +
+            "  };" +
+            "}" +
+            "if (s.observer) { s.observer.disconnect(); }" +
+            "s.changed = false;" +
+            "s.lastActivity = Date.now();" +
+            "var isBlock = function (node) {" +
+            "  return node.nodeType === 1 && (node.matches(selector) || !!node.querySelector(selector));" +
+            "};" +
+            "s.observer = new MutationObserver(function (records) {" +
+            "  for (var i = 0; i < records.length; i++) {" +
+            "    var record = records[i];" +
+            "    var node = record.target.nodeType === 1 ? record.target : record.target.parentElement;" +
+            "    var changed = !!(node && node.closest(selector));" +
+            "    for (var j = 0; !changed && j < record.addedNodes.length; j++) {" +
+            "      changed = isBlock(record.addedNodes[j]);" +
+            "    }" +
+            "    for (var k = 0; !changed && k < record.removedNodes.length; k++) {" +
+            "      changed = isBlock(record.removedNodes[k]);" +
+            "    }" +
+            "    if (changed) {" +
+            "      s.changed = true; s.lastActivity = Date.now(); return;" +
+            "    }" +
+            "  }" +
+            "});" +
+            "s.observer.observe(document.documentElement, {childList: true, subtree: true, characterData: true});";
+
+    /**
+     * Асинхронный скрипт, завершающийся, когда область изменилась и сеть простаивает окно тишины,
+     * либо по истечении времени ожидания.
+     */
+    private static final String AWAIT_SCRIPT =
+            "var quiet = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];" +
+            "var deadline = Date.now() + timeout;" +
+            "var s = window.__domSettle;" +
+            "(function poll() {" +
+            "  var now = Date.now();" +
+            "  if (!s) {" +
+            "    if (document.readyState === 'complete') { done(true); return; }" +
+            "  } else if (s.changed && s.inflight <= 0 && now - s.lastActivity >= quiet) {" +
+            "    s.observer.disconnect(); done(true); return;" +
+            "  }" +
+            "  if (now >= deadline) { if (s) { s.observer.disconnect(); } done(false); return; }" +
+            "  setTimeout(poll, Math.min(50, quiet));" +
+            "})();";
+
+    /**
+     * Запас времени сверх ожидания для таймаута асинхронных скриптов WebDriver.
+     */
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private DomSettleWait() {
+    }
+
+    /**
+     * Устанавливает наблюдение за областью страницы. Вызывается непосредственно перед действием,
+     * которое должно изменить область.
+     *
+     * @param cssSelector CSS-селектор элементов наблюдаемой области
+     */
+    public static void arm(String cssSelector) {
+        Selenide.executeJavaScript(ARM_SCRIPT, cssSelector);
+    }
+
+    /**
+     * Ожидает, пока наблюдаемая область изменится и сеть простаивает окно тишины.
+     * Если после действия произошла навигация, ожидает полной загрузки нового документа.
+     * Увеличенный на время ожидания таймаут асинхронных скриптов затем восстанавливается,
+     * так как WebDriver из пула переходит к следующим тестам.
+     *
+     * @param quietWindow окно тишины сети и DOM
+     * @param timeout максимальное время ожидания
+     * @return true, если область обновилась; false, если время ожидания истекло
+     */
+    public static boolean awaitSettled(Duration quietWindow, Duration timeout) {
+        WebDriver.Timeouts timeouts = WebDriverRunner.getWebDriver().manage().timeouts();
+        Duration previousScriptTimeout = timeouts.getScriptTimeout();
+        Duration scriptTimeout = timeout.plus(SCRIPT_TIMEOUT_MARGIN);
+        boolean raised = previousScriptTimeout.compareTo(scriptTimeout) < 0;
+        if (raised) {
+            timeouts.scriptTimeout(scriptTimeout);
+        }
+        Boolean settled;
+        try {
+            settled = Selenide.executeAsyncJavaScript(AWAIT_SCRIPT, quietWindow.toMillis(), timeout.toMillis());
+        } finally {
+            if (raised) {
+                timeouts.scriptTimeout(previousScriptTimeout);
+            }
+        }
+        return Boolean.TRUE.equals(settled);
+    }
+}
@@ -0,0 +1,163 @@
+package com.bellintegrator.webdriver;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Класс ElementTracker запоминает элемент, с которым работает текущее событие Selenide: последний найденный
+ * элемент или элемент, у которого вызывался метод. По нему скриншот обрезается до элемента.
+ * Если событие нашло сразу несколько элементов (проверка коллекции), элемент считается неопределенным.
+ * Позиция сбрасывается перед каждым событием Selenide.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class ElementTracker implements WebDriverListener {
+
+    /**
+     * Слушатели по обернутым экземплярам WebDriver.
+     */
+    private static final Map<WebDriver, ElementTracker> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Элемент текущего события или null.
+     */
+    private volatile WebElement target;
+
+    /**
+     * Признак того, что событие работало с несколькими элементами.
+     */
+    private volatile boolean ambiguous;
+
+    /**
+     * Закрытый конструктор: слушатель создается при обертке WebDriver.
+     */
+    private ElementTracker() {
+    }
+
+    /**
+     * Оборачивает WebDriver слушателем, запоминающим элементы событий.
+     *
+     * @param driver экземпляр WebDriver
+     * @return обернутый экземпляр WebDriver, который нужно использовать вместо исходного
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        ElementTracker tracker = new ElementTracker();
+        WebDriver decorated = new EventFiringDecorator<>(tracker).decorate(driver);
+        TRACKERS.put(decorated, tracker);
+        return decorated;
+    }
+
+    /**
+     * Сбрасывает элемент перед новым событием Selenide.
+     *
+     * @param driver обернутый экземпляр WebDriver
+     */
+    public static void reset(WebDriver driver) {
+        ElementTracker tracker = TRACKERS.get(driver);
+        if (tracker != null) {
+            tracker.target = null;
+            tracker.ambiguous = false;
+        }
+    }
+
+    /**
+     * Возвращает элемент текущего события.
+     *
+     * @param driver обернутый экземпляр WebDriver
+     * @return элемент или пустой Optional, если WebDriver не обернут или элемент не определен
+     */
+    public static Optional<WebElement> target(WebDriver driver) {
+        ElementTracker tracker = TRACKERS.get(driver);
+        if (tracker == null || tracker.ambiguous) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tracker.target);
+    }
+
+    /**
+     * Запоминает элемент, найденный на странице.
+     *
+     * @param driver экземпляр WebDriver
+     * @param locator локатор
+     * @param result найденный элемент
+     */
+    @Override
+    public void afterFindElement(WebDriver driver, By locator, WebElement result) {
+        target = result;
+    }
+
+    /**
+     * Запоминает элемент, найденный внутри другого элемента.
+     *
+     * @param element родительский элемент
+     * @param locator локатор
+     * @param result найденный элемент
+     */
+    @Override
+    public void afterFindElement(WebElement element, By locator, WebElement result) {
+        target = result;
+    }
+
+    /**
+     * Запоминает единственный найденный элемент или отмечает, что событие работает с коллекцией.
+     *
+     * @param driver экземпляр WebDriver
+     * @param locator локатор
+     * @param result найденные элементы
+     */
+    @Override
+    public void afterFindElements(WebDriver driver, By locator, List<WebElement> result) {
+        found(result);
+    }
+
+    /**
+     * Запоминает единственный найденный внутри элемента элемент или отмечает, что событие работает с коллекцией.
+     *
+     * @param element родительский элемент
+     * @param locator локатор
+     * @param result найденные элементы
+     */
+    @Override
+    public void afterFindElements(WebElement element, By locator, List<WebElement> result) {
+        found(result);
+    }
+
+    /**
+     * Запоминает элемент, у которого вызывался метод. Поиск внутри элемента не делает его целью события.
+     *
+     * @param element элемент
+     * @param method вызванный метод
+     * @param args аргументы метода
+     * @param result результат метода
+     */
+    @Override
+    public void afterAnyWebElementCall(WebElement element, Method method, Object[] args, Object result) {
+        if (!method.getName().startsWith("findElement")) {
+            target = element;
+        }
+    }
+
+    /**
+     * Обрабатывает результат поиска нескольких элементов.
+     *
+     * @param result найденные элементы
+     */
+    private void found(List<WebElement> result) {
+        if (result.size() == 1) {
+            target = result.get(0);
+        } else if (!result.isEmpty()) {
+            ambiguous = true;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.bellintegrator.webdriver;
+
+import com.bellintegrator.metrics.LatencyHistogram;
+import com.bellintegrator.metrics.StepTimings;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.CustomAllureSelenide;
+import com.bellintegrator.service.Reports;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс LaunchProfile запускает браузер Chrome с параметрами из свойств browser: режим headless, размер окна,
+ * отключенные фоновые функции и дополнительные аргументы. Если включен шаблон профиля, каждый браузер получает
+ * свою копию прогретого профиля с HTTP-кешем, и первая загрузка страницы не скачивает статические ресурсы заново.
+ * Время запуска браузера, копирования профиля и первой (холодной) и последующих загрузок страниц в одном браузере
+ * записывается в отчет browser-launch.json, чтобы выигрыш от шаблона можно было измерить.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public final class LaunchProfile {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LaunchProfile.class);
+
+    /**
+     * Аргументы, отключающие фоновые функции браузера, не нужные тестам.
+     */
+    private static final List<String> BACKGROUND_ARGUMENTS = Collections.unmodifiableList(Arrays.asList(
+            "--disable-background-networking",
+            "--disable-background-timer-throttling",
+            "--disable-backgrounding-occluded-windows",
+            "--disable-renderer-backgrounding",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--disable-extensions",
+            "--disable-features=Translate,OptimizationHints,MediaRouter",
+            "--no-first-run",
+            "--no-default-browser-check"));
+
+    /**
+     * Длительности запуска браузера.
+     */
+    private static final LatencyHistogram LAUNCH = new LatencyHistogram();
+
+    /**
+     * Длительности копирования шаблона профиля.
+     */
+    private static final LatencyHistogram PROFILE_COPY = new LatencyHistogram();
+
+    /**
+     * Длительности первой загрузки страницы в только что запущенном браузере.
+     */
+    private static final LatencyHistogram COLD_LOAD = new LatencyHistogram();
+
+    /**
+     * Длительности последующих загрузок страниц.
+     */
+    private static final LatencyHistogram WARM_LOAD = new LatencyHistogram();
+
+    /**
+     * Браузеры, в которых уже загружалась страница.
+     */
+    private static final Set<WebDriver> LOADED = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * Шаблон профиля или null, если он выключен или не готов.
+     */
+    private static ProfileTemplate template;
+
+    /**
+     * Признак проверки шаблона в текущем прогоне.
+     */
+    private static boolean templateChecked;
+
+    /**
+     * Каталог копий профиля текущего прогона.
+     */
+    private static Path runDir;
+
+    /**
+     * Закрытый конструктор утилитного класса.
+     */
+    private LaunchProfile() {
+    }
+
+    /**
+     * Создает параметры запуска Chrome из свойств browser.
+     *
+     * @param userDataDir каталог профиля или null, если браузер создает временный профиль сам
+     * @return параметры запуска
+     */
+    public static ChromeOptions chromeOptions(Path userDataDir) {
+        ChromeOptions options = new ChromeOptions();
+        boolean headless = Properties.testsProperties.browserHeadless();
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        String windowSize = Properties.testsProperties.browserWindowSize().trim();
+        if (!windowSize.isEmpty()) {
+            options.addArguments("--window-size=" + windowSize.replace('x', ','));
+        } else if (!headless) {
+            options.addArguments("--start-maximized");
+        }
+        if (Properties.testsProperties.browserDisableBackgroundFeatures()) {
+            options.addArguments(BACKGROUND_ARGUMENTS);
+        }
+        for (String argument : Properties.testsProperties.browserArguments()) {
+            if (!argument.trim().isEmpty()) {
+                options.addArguments(argument.trim());
+            }
+        }
+        if (userDataDir != null) {
+            options.addArguments("--user-data-dir=" + userDataDir.toAbsolutePath(),
+                    "--disk-cache-size=" + Properties.testsProperties.browserDiskCacheMaxBytes());
+        }
+        options.setCapability(ChromeOptions.LOGGING_PREFS, CustomAllureSelenide.loggingPreferences());
+        return options;
+    }
+
+    /**
+     * Запускает браузер Chrome. При включенном шаблоне профиля перед первым запуском проверяет шаблон
+     * и при необходимости создает его заново, а для каждого браузера копирует шаблон в отдельный каталог.
+     *
+     * @return новый экземпляр WebDriver
+     */
+    public static WebDriver launch() {
+        ProfileTemplate readyTemplate = template();
+        Path userDataDir = readyTemplate == null ? null : copyTemplate(readyTemplate);
+        long start = System.nanoTime();
+        ChromeDriver driver = new ChromeDriver(chromeOptions(userDataDir));
+        long nanos = System.nanoTime() - start;
+        LAUNCH.record(nanos);
+        StepTimings.record("browser.launch", nanos);
+        if (userDataDir != null) {
+            readyTemplate.checkBrowserVersion(driver.getCapabilities().getBrowserVersion());
+        }
+        return driver;
+    }
+
+    /**
+     * Записывает длительность загрузки страницы: первая загрузка в браузере считается холодной.
+     *
+     * @param driver экземпляр WebDriver
+     * @param nanos длительность загрузки в наносекундах
+     */
+    public static void recordPageLoad(WebDriver driver, long nanos) {
+        if (LOADED.add(driver)) {
+            COLD_LOAD.record(nanos);
+            StepTimings.record("browser.load.cold", nanos);
+        } else {
+            WARM_LOAD.record(nanos);
+            StepTimings.record("browser.load.warm", nanos);
+        }
+    }
+
+    /**
+     * Возвращает параметры запуска и длительности запуска браузеров, копирования профиля и загрузок страниц.
+     *
+     * @return статистика запусков
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("headless", Properties.testsProperties.browserHeadless());
+        statistics.put("windowSize", Properties.testsProperties.browserWindowSize());
+        statistics.put("backgroundFeaturesDisabled", Properties.testsProperties.browserDisableBackgroundFeatures());
+        ProfileTemplate current;
+        synchronized (LaunchProfile.class) {
+            current = template;
+        }
+        statistics.put("profileTemplate", current == null
+                ? Collections.singletonMap("state", Properties.testsProperties.browserProfileTemplateEnabled()
+                        ? "failed" : "disabled")
+                : current.getStatistics());
+        statistics.put("launch", summary(LAUNCH));
+        statistics.put("profileCopy", summary(PROFILE_COPY));
+        statistics.put("coldLoad", summary(COLD_LOAD));
+        statistics.put("warmLoad", summary(WARM_LOAD));
+        return statistics;
+    }
+
+    /**
+     * Выводит статистику запусков в лог и записывает ее в файл отчета browser-launch.json.
+     */
+    public static void report() {
+        if (LAUNCH.getCount() == 0) {
+            return;
+        }
+        Map<String, Object> statistics = getStatistics();
+        LOGGER.info("Запуск браузеров: {}", statistics);
+        Reports.writeJson("browser-launch.json", statistics);
+    }
+
+    /**
+     * Удаляет копии профиля текущего прогона. Вызывается после закрытия всех браузеров.
+     */
+    public static synchronized void cleanUp() {
+        if (runDir == null) {
+            return;
+        }
+        try {
+            ProfileTemplate.deleteRecursively(runDir);
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось удалить копии профиля браузера {}", runDir, e);
+        }
+        runDir = null;
+    }
+
+    /**
+     * Возвращает шаблон профиля, проверяя его при первом запуске браузера в прогоне.
+     *
+     * @return готовый шаблон или null, если шаблон выключен или не готов
+     */
+    private static synchronized ProfileTemplate template() {
+        if (!templateChecked) {
+            templateChecked = true;
+            if (Properties.testsProperties.browserProfileTemplateEnabled()) {
+                ProfileTemplate candidate = new ProfileTemplate(
+                        Paths.get(Properties.testsProperties.browserProfileTemplateDir()),
+                        Properties.testsProperties.browserProfileTemplateVersion(),
+                        TimeUnit.HOURS.toMillis(Properties.testsProperties.browserProfileTemplateMaxAgeHours()),
+                        warmupPaths(), URI.create(Properties.testsProperties.citilinkUrl()));
+                if (candidate.prepare(dir -> new ChromeDriver(chromeOptions(dir)))) {
+                    template = candidate;
+                }
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Копирует шаблон в новый каталог профиля текущего прогона.
+     *
+     * @param readyTemplate готовый шаблон
+     * @return каталог профиля или null, если шаблон не удалось скопировать
+     */
+    private static Path copyTemplate(ProfileTemplate readyTemplate) {
+        long start = System.nanoTime();
+        try {
+            Path userDataDir = Files.createTempDirectory(runDir(), "profile-");
+            readyTemplate.copyTo(userDataDir);
+            PROFILE_COPY.record(System.nanoTime() - start);
+            return userDataDir;
+        } catch (IOException e) {
+            LOGGER.warn("Не удалось скопировать шаблон профиля браузера, браузер запускается без него", e);
+            return null;
+        }
+    }
+
+    /**
+     * Возвращает каталог копий профиля текущего прогона, создавая его при первом обращении.
+     *
+     * @return каталог копий профиля
+     * @throws IOException если каталог не удалось создать
+     */
+    private static synchronized Path runDir() throws IOException {
+        if (runDir == null) {
+            Path workDir = Paths.get(Properties.testsProperties.browserProfileWorkDir());
+            Files.createDirectories(workDir);
+            runDir = Files.createTempDirectory(workDir, "run-");
+        }
+        return runDir;
+    }
+
+    /**
+     * Возвращает непустые пути страниц прогрева из свойства browser.profile.warmup.paths.
+     *
+     * @return пути страниц прогрева
+     */
+    private static List<String> warmupPaths() {
+        List<String> paths = new ArrayList<>();
+        for (String path : Properties.testsProperties.browserProfileWarmupPaths()) {
+            if (!path.trim().isEmpty()) {
+                paths.add(path.trim());
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Формирует сводку длительностей.
+     *
+     * @param histogram гистограмма длительностей
+     * @return количество, медиана, 95-й перцентиль и максимум в миллисекундах
+     */
+    private static Map<String, Object> summary(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getCount());
+        summary.put("p50Millis", histogram.percentileMillis(50));
+        summary.put("p95Millis", histogram.percentileMillis(95));
+        summary.put("maxMillis", histogram.getMaxMillis());
+        return summary;
+    }
+}
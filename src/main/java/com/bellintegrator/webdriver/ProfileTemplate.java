@@ -0,0 +1,417 @@
+package com.bellintegrator.webdriver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Класс ProfileTemplate хранит прогретый профиль браузера: каталог user-data-dir, в котором браузер
+ * уже открыл страницы прогрева и заполнил HTTP-кеш. Для каждого запускаемого браузера профиль копируется,
+ * поэтому браузеры не делят один кеш и не портят шаблон. Cookies и хранилища страниц не копируются,
+ * чтобы тесты не получали состояние прогрева. Шаблон создается заново, если его нет, изменились версия
+ * шаблона или пути прогрева, истек его возраст или обновился браузер. Шаблон общий для параллельных прогонов
+ * на одной машине, поэтому проверка и создание шаблона выполняются под исключительной файловой блокировкой,
+ * а копирование - под разделяемой, чтобы другой прогон не создавал шаблон заново во время копирования.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class ProfileTemplate {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileTemplate.class);
+
+    /**
+     * Сериализатор JSON.
+     */
+    private static final Json JSON = new Json();
+
+    /**
+     * Имя файла с описанием шаблона.
+     */
+    private static final String MARKER = "template.json";
+
+    /**
+     * Файлы и каталоги профиля, которые не копируются: блокировки запущенного браузера,
+     * cookies, хранилища страниц и сессии вкладок.
+     */
+    private static final Set<String> EXCLUDED = new HashSet<>(Arrays.asList(MARKER,
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile",
+            "Cookies", "Cookies-journal", "Local Storage", "Session Storage", "IndexedDB",
+            "Sessions", "Current Session", "Current Tabs", "Last Session", "Last Tabs"));
+
+    /**
+     * Каталог шаблона.
+     */
+    private final Path dir;
+
+    /**
+     * Версия шаблона.
+     */
+    private final int version;
+
+    /**
+     * Максимальный возраст шаблона в миллисекундах.
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * Пути страниц прогрева.
+     */
+    private final List<String> warmupPaths;
+
+    /**
+     * Адрес сайта, относительно которого открываются страницы прогрева.
+     */
+    private final URI baseUrl;
+
+    /**
+     * Состояние шаблона в текущем прогоне: reused, rebuilt или failed.
+     */
+    private volatile String state = "unchecked";
+
+    /**
+     * Причина создания шаблона заново.
+     */
+    private volatile String rebuildReason;
+
+    /**
+     * Длительность создания шаблона в миллисекундах.
+     */
+    private volatile long buildMillis;
+
+    /**
+     * Объем скопированного шаблона при последнем копировании.
+     */
+    private final AtomicLong copiedBytes = new AtomicLong();
+
+    /**
+     * Количество копирований шаблона, выполняющихся в этой JVM.
+     */
+    private int activeCopies;
+
+    /**
+     * Файл блокировки с разделяемой блокировкой на время копирований или null. Одна блокировка
+     * на все копирования JVM, так как пересекающиеся блокировки одного файла в одной JVM запрещены.
+     */
+    private FileChannel copyChannel;
+
+    /**
+     * Конструктор шаблона профиля.
+     *
+     * @param dir каталог шаблона
+     * @param version версия шаблона
+     * @param maxAgeMillis максимальный возраст шаблона в миллисекундах
+     * @param warmupPaths пути страниц прогрева
+     * @param baseUrl адрес сайта, относительно которого открываются страницы прогрева
+     */
+    public ProfileTemplate(Path dir, int version, long maxAgeMillis, List<String> warmupPaths, URI baseUrl) {
+        this.dir = dir.toAbsolutePath();
+        this.version = version;
+        this.maxAgeMillis = maxAgeMillis;
+        this.warmupPaths = warmupPaths;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Проверяет шаблон и при необходимости создает его заново: запускает браузер с профилем в каталоге шаблона,
+     * открывает страницы прогрева и закрывает браузер.
+     *
+     * @param launcher запуск браузера с заданным каталогом профиля
+     * @return true, если шаблон готов к копированию
+     */
+    public synchronized boolean prepare(Function<Path, WebDriver> launcher) {
+        try {
+            Files.createDirectories(dir.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    String reason = invalidReason();
+                    if (reason == null) {
+                        state = "reused";
+                        LOGGER.info("Используется шаблон профиля браузера {}", dir);
+                        return true;
+                    }
+                    LOGGER.info("Шаблон профиля браузера {} создается заново: {}", dir, reason);
+                    rebuildReason = reason;
+                    build(launcher);
+                    state = "rebuilt";
+                    return true;
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException | WebDriverException e) {
+            LOGGER.warn("Не удалось подготовить шаблон профиля браузера {}, браузеры запускаются без него", dir, e);
+            state = "failed";
+            try {
+                deleteRecursively(dir);
+            } catch (IOException deleteError) {
+                LOGGER.debug("Не удалось удалить шаблон профиля браузера {}", dir, deleteError);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Копирует шаблон в каталог профиля нового браузера под разделяемой файловой блокировкой шаблона.
+     *
+     * @param target каталог профиля
+     * @throws IOException если шаблон не удалось скопировать
+     */
+    public void copyTo(Path target) throws IOException {
+        acquireCopyLock();
+        try {
+            copyFiles(target);
+        } finally {
+            releaseCopyLock();
+        }
+    }
+
+    /**
+     * Копирует файлы шаблона, кроме исключенных.
+     *
+     * @param target каталог профиля
+     * @throws IOException если шаблон не удалось скопировать
+     */
+    private void copyFiles(Path target) throws IOException {
+        AtomicLong bytes = new AtomicLong();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                    throws IOException {
+                if (!directory.equals(dir) && EXCLUDED.contains(directory.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(dir.relativize(directory).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isRegularFile() && !EXCLUDED.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(dir.relativize(file).toString()),
+                            StandardCopyOption.REPLACE_EXISTING);
+                    bytes.addAndGet(attributes.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        copiedBytes.set(bytes.get());
+    }
+
+    /**
+     * Берет разделяемую файловую блокировку шаблона при первом из одновременных копирований в этой JVM.
+     * Синхронизирован с prepare, поэтому копирование не начинается во время создания шаблона этой JVM.
+     *
+     * @throws IOException если файл блокировки не удалось открыть или заблокировать
+     */
+    private synchronized void acquireCopyLock() throws IOException {
+        if (activeCopies == 0) {
+            FileChannel channel = FileChannel.open(lockFile(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                channel.lock(0, Long.MAX_VALUE, true);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            copyChannel = channel;
+        }
+        activeCopies++;
+    }
+
+    /**
+     * Снимает разделяемую файловую блокировку шаблона после последнего из одновременных копирований:
+     * закрытие файла блокировки снимает и блокировку.
+     */
+    private synchronized void releaseCopyLock() {
+        if (--activeCopies > 0) {
+            return;
+        }
+        try {
+            copyChannel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Не удалось снять блокировку шаблона профиля браузера {}", dir, e);
+        } finally {
+            copyChannel = null;
+        }
+    }
+
+    /**
+     * Возвращает файл блокировки шаблона.
+     *
+     * @return путь к файлу блокировки рядом с каталогом шаблона
+     */
+    private Path lockFile() {
+        return dir.resolveSibling(dir.getFileName() + ".lock");
+    }
+
+    /**
+     * Сверяет версию запущенного браузера с версией, для которой создан шаблон. После обновления браузера
+     * шаблон помечается устаревшим и создается заново при следующем прогоне.
+     *
+     * @param browserVersion версия запущенного браузера
+     */
+    public void checkBrowserVersion(String browserVersion) {
+        Object templateVersion = readMarker().get("browserVersion");
+        if (templateVersion != null && browserVersion != null && !browserVersion.equals(templateVersion)) {
+            LOGGER.info("Шаблон профиля браузера создан для версии {}, запущена версия {}; "
+                    + "шаблон будет создан заново при следующем прогоне", templateVersion, browserVersion);
+            try {
+                Files.deleteIfExists(dir.resolve(MARKER));
+            } catch (IOException e) {
+                LOGGER.warn("Не удалось пометить шаблон профиля браузера устаревшим", e);
+            }
+        }
+    }
+
+    /**
+     * Возвращает состояние шаблона в текущем прогоне.
+     *
+     * @return состояние, причина создания заново, длительность создания и объем копии
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("dir", dir.toString());
+        statistics.put("state", state);
+        statistics.put("rebuildReason", rebuildReason);
+        statistics.put("buildMillis", buildMillis);
+        statistics.put("copiedBytes", copiedBytes.get());
+        return statistics;
+    }
+
+    /**
+     * Определяет, почему шаблон нельзя использовать.
+     *
+     * @return причина или null, если шаблон можно использовать
+     */
+    private String invalidReason() {
+        Map<String, Object> marker = readMarker();
+        if (marker.isEmpty()) {
+            return "шаблона нет";
+        }
+        Object markerVersion = marker.get("version");
+        if (!(markerVersion instanceof Number) || ((Number) markerVersion).intValue() != version) {
+            return "версия шаблона " + markerVersion + ", требуется " + version;
+        }
+        if (!warmupPaths.equals(marker.get("warmupPaths"))) {
+            return "изменились страницы прогрева";
+        }
+        Object createdAt = marker.get("createdAt");
+        if (!(createdAt instanceof Number)
+                || System.currentTimeMillis() - ((Number) createdAt).longValue() > maxAgeMillis) {
+            return "истек возраст шаблона";
+        }
+        return null;
+    }
+
+    /**
+     * Создает шаблон: очищает каталог, открывает страницы прогрева в браузере с профилем шаблона
+     * и записывает описание шаблона.
+     *
+     * @param launcher запуск браузера с заданным каталогом профиля
+     * @throws IOException если каталог шаблона не удалось подготовить
+     */
+    private void build(Function<Path, WebDriver> launcher) throws IOException {
+        long start = System.nanoTime();
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+        WebDriver driver = launcher.apply(dir);
+        String browserVersion = null;
+        try {
+            if (driver instanceof HasCapabilities) {
+                browserVersion = ((HasCapabilities) driver).getCapabilities().getBrowserVersion();
+            }
+            for (String path : warmupPaths) {
+                driver.get(baseUrl.resolve(path).toString());
+            }
+        } finally {
+            driver.quit();
+        }
+        Map<String, Object> marker = new LinkedHashMap<>();
+        marker.put("version", version);
+        marker.put("createdAt", System.currentTimeMillis());
+        marker.put("browserVersion", browserVersion);
+        marker.put("warmupPaths", warmupPaths);
+        Files.write(dir.resolve(MARKER), JSON.toJson(marker).getBytes(StandardCharsets.UTF_8));
+        buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Шаблон профиля браузера создан за {} мс", buildMillis);
+    }
+
+    /**
+     * Читает описание шаблона.
+     *
+     * @return описание или пустой словарь, если его нет или оно повреждено
+     */
+    private Map<String, Object> readMarker() {
+        Path file = dir.resolve(MARKER);
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return JSON.toType(reader, Json.MAP_TYPE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Не удалось прочитать описание шаблона профиля браузера {}", file, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Удаляет каталог со всем содержимым.
+     *
+     * @param directory каталог
+     * @throws IOException если каталог не удалось удалить
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
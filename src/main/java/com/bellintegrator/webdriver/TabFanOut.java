@@ -0,0 +1,324 @@
+package com.bellintegrator.webdriver;
+
+import com.bellintegrator.network.NetworkMode;
+import com.bellintegrator.network.NetworkStand;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Класс TabFanOut выполняет проверки многих наборов данных в одном браузере: до maxTabs вкладок загружаются
+ * одновременно, а проверки page object выполняются по очереди во вкладке, переключенной в текущую.
+ * Проверенная вкладка сразу загружает следующий набор данных, поэтому загрузки страниц перекрываются
+ * с проверками. Ошибка проверки или загрузки одной вкладки записывается в ее результат и не прерывает остальные.
+ * Перехват трафика NetworkStand подключен только к первой вкладке драйвера, поэтому новые вкладки открываются
+ * только в режиме LIVE (блокировка запросов в них не действует); в режимах RECORD и REPLAY наборы данных
+ * проверяются по очереди в исходной вкладке, чтобы запись и воспроизведение трафика не обходились.
+ *
+ * @param <T> тип набора данных
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class TabFanOut<T> {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TabFanOut.class);
+
+    /**
+     * Скрипт, начинающий навигацию без ожидания ее окончания. Текущий документ помечается как уходящий:
+     * у переиспользуемой вкладки он остается загруженным, пока не начнется загрузка нового документа.
+     */
+    private static final String NAVIGATE_SCRIPT =
+            "window.__tabFanOutLeaving = true; window.location.href = arguments[0];";
+
+    /**
+     * Скрипт проверки окончания загрузки нового документа: у него нет пометки уходящего документа.
+     * Сравнение с заданным адресом не используется, так как сайт может перенаправить запрос.
+     */
+    private static final String LOADED_SCRIPT =
+            "return !window.__tabFanOutLeaving && location.href !== 'about:blank'"
+                    + " && document.readyState === 'complete';";
+
+    /**
+     * WebDriver, в котором открываются вкладки.
+     */
+    private final WebDriver driver;
+
+    /**
+     * Наибольшее число одновременно открытых вкладок.
+     */
+    private final int maxTabs;
+
+    /**
+     * Таймаут загрузки страницы во вкладке.
+     */
+    private final Duration loadTimeout;
+
+    /**
+     * Конструктор исполнителя.
+     *
+     * @param driver WebDriver, в котором открываются вкладки
+     * @param maxTabs наибольшее число одновременно открытых вкладок
+     * @param loadTimeout таймаут загрузки страницы во вкладке
+     */
+    public TabFanOut(WebDriver driver, int maxTabs, Duration loadTimeout) {
+        this.driver = driver;
+        this.maxTabs = Math.max(1, maxTabs);
+        this.loadTimeout = loadTimeout;
+    }
+
+    /**
+     * Открывает наборы данных во вкладках и выполняет для каждого проверку.
+     * По окончании лишние вкладки закрываются и текущей становится исходная вкладка.
+     * Вне режима LIVE наборы данных проверяются по очереди в исходной вкладке.
+     *
+     * @param items наборы данных
+     * @param urlOf адрес страницы набора данных
+     * @param check проверка, выполняемая в текущей вкладке с загруженной страницей набора данных
+     * @return результаты в порядке наборов данных
+     */
+    public List<TabResult<T>> run(List<T> items, Function<T, String> urlOf, Consumer<T> check) {
+        String originalHandle = driver.getWindowHandle();
+        if (NetworkStand.getMode() != NetworkMode.LIVE) {
+            LOGGER.info("Режим сети {}: наборы данных проверяются по очереди в исходной вкладке",
+                    NetworkStand.getMode());
+            return runInTab(originalHandle, items, urlOf, check);
+        }
+        List<TabResult<T>> results = new ArrayList<>(items.size());
+        items.forEach(item -> results.add(null));
+        Iterator<T> pending = items.iterator();
+        int next = 0;
+        Deque<Tab<T>> tabs = new ArrayDeque<>();
+        try {
+            while (tabs.size() < maxTabs && pending.hasNext()) {
+                driver.switchTo().newWindow(WindowType.TAB);
+                Tab<T> tab = new Tab<>(driver.getWindowHandle(), next++, pending.next());
+                navigate(tab, urlOf);
+                tabs.add(tab);
+            }
+            while (!tabs.isEmpty()) {
+                Tab<T> tab = tabs.poll();
+                results.set(tab.index, check(tab, check));
+                if (pending.hasNext()) {
+                    Tab<T> reused = new Tab<>(tab.handle, next++, pending.next());
+                    navigate(reused, urlOf);
+                    tabs.add(reused);
+                } else {
+                    close(tab.handle);
+                }
+            }
+        } finally {
+            tabs.forEach(tab -> close(tab.handle));
+            driver.switchTo().window(originalHandle);
+        }
+        return results;
+    }
+
+    /**
+     * Проверяет наборы данных по очереди в одной вкладке.
+     *
+     * @param handle идентификатор вкладки
+     * @param items наборы данных
+     * @param urlOf адрес страницы набора данных
+     * @param check проверка
+     * @return результаты в порядке наборов данных
+     */
+    private List<TabResult<T>> runInTab(String handle, List<T> items, Function<T, String> urlOf, Consumer<T> check) {
+        List<TabResult<T>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Tab<T> tab = new Tab<>(handle, i, items.get(i));
+            navigate(tab, urlOf);
+            results.add(check(tab, check));
+        }
+        return results;
+    }
+
+    /**
+     * Начинает загрузку страницы набора данных во вкладке, не дожидаясь ее окончания.
+     *
+     * @param tab вкладка
+     * @param urlOf адрес страницы набора данных
+     */
+    private void navigate(Tab<T> tab, Function<T, String> urlOf) {
+        tab.startedAt = System.nanoTime();
+        try {
+            driver.switchTo().window(tab.handle);
+            ((JavascriptExecutor) driver).executeScript(NAVIGATE_SCRIPT, urlOf.apply(tab.item));
+        } catch (WebDriverException e) {
+            tab.error = e;
+        }
+    }
+
+    /**
+     * Переключается на вкладку, дожидается загрузки страницы и выполняет проверку.
+     *
+     * @param tab вкладка
+     * @param check проверка
+     * @return результат проверки
+     */
+    private TabResult<T> check(Tab<T> tab, Consumer<T> check) {
+        Throwable error = tab.error;
+        if (error == null) {
+            try {
+                driver.switchTo().window(tab.handle);
+                new WebDriverWait(driver, loadTimeout)
+                        .until(loaded -> (Boolean) ((JavascriptExecutor) loaded).executeScript(LOADED_SCRIPT));
+                check.accept(tab.item);
+            } catch (AssertionError | RuntimeException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            LOGGER.warn("Проверка во вкладке не пройдена для {}: {}", tab.item, error.toString());
+        }
+        return new TabResult<>(tab.item, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tab.startedAt), error);
+    }
+
+    /**
+     * Закрывает вкладку.
+     *
+     * @param handle идентификатор вкладки
+     */
+    private void close(String handle) {
+        try {
+            driver.switchTo().window(handle);
+            driver.close();
+        } catch (WebDriverException e) {
+            LOGGER.debug("Не удалось закрыть вкладку {}", handle, e);
+        }
+    }
+
+    /**
+     * Открытая вкладка с набором данных.
+     *
+     * @param <T> тип набора данных
+     */
+    private static final class Tab<T> {
+
+        /**
+         * Идентификатор вкладки.
+         */
+        private final String handle;
+
+        /**
+         * Номер набора данных.
+         */
+        private final int index;
+
+        /**
+         * Набор данных.
+         */
+        private final T item;
+
+        /**
+         * Момент начала загрузки в наносекундах.
+         */
+        private long startedAt;
+
+        /**
+         * Ошибка начала загрузки.
+         */
+        private Throwable error;
+
+        /**
+         * Конструктор вкладки.
+         *
+         * @param handle идентификатор вкладки
+         * @param index номер набора данных
+         * @param item набор данных
+         */
+        private Tab(String handle, int index, T item) {
+            this.handle = handle;
+            this.index = index;
+            this.item = item;
+        }
+    }
+
+    /**
+     * Результат проверки набора данных во вкладке.
+     *
+     * @param <T> тип набора данных
+     */
+    public static final class TabResult<T> {
+
+        /**
+         * Набор данных.
+         */
+        private final T item;
+
+        /**
+         * Время от начала загрузки до окончания проверки в миллисекундах.
+         */
+        private final long durationMillis;
+
+        /**
+         * Ошибка загрузки или проверки, null при успехе.
+         */
+        private final Throwable error;
+
+        /**
+         * Конструктор результата.
+         *
+         * @param item набор данных
+         * @param durationMillis время от начала загрузки до окончания проверки
+         * @param error ошибка загрузки или проверки
+         */
+        private TabResult(T item, long durationMillis, Throwable error) {
+            this.item = item;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        /**
+         * Возвращает набор данных.
+         *
+         * @return набор данных
+         */
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Возвращает время от начала загрузки до окончания проверки.
+         *
+         * @return время в миллисекундах
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Возвращает ошибку загрузки или проверки.
+         *
+         * @return ошибка или null при успехе
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Определяет, пройдена ли проверка.
+         *
+         * @return true, если ошибки не было
+         */
+        public boolean isPassed() {
+            return error == null;
+        }
+    }
+}
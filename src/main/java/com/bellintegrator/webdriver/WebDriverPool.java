@@ -0,0 +1,360 @@
+package com.bellintegrator.webdriver;
+
+import com.bellintegrator.service.Reports;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Класс WebDriverPool хранит заранее запущенные экземпляры WebDriver и выдает их тестам в аренду.
+ * Возвращенный драйвер очищается (cookies, local/session storage, лишние вкладки) и проверяется;
+ * сломанные драйверы и драйверы, превысившие возраст или число использований, пересоздаются.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class WebDriverPool {
+
+    /**
+     * Логгер для записи информации о ходе выполнения и ошибках.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverPool.class);
+
+    /**
+     * Фабрика новых экземпляров WebDriver.
+     */
+    private final Supplier<WebDriver> factory;
+
+    /**
+     * Максимальное количество одновременно существующих драйверов.
+     */
+    private final int size;
+
+    /**
+     * Максимальный возраст драйвера в миллисекундах.
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * Максимальное количество аренд одного драйвера.
+     */
+    private final int maxUses;
+
+    /**
+     * Свободные драйверы.
+     */
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+
+    /**
+     * Драйверы, выданные в аренду.
+     */
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+
+    /**
+     * Количество существующих драйверов.
+     */
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Количество аренд.
+     */
+    private final AtomicLong leaseCount = new AtomicLong();
+
+    /**
+     * Количество аренд уже использованного драйвера.
+     */
+    private final AtomicLong reuseCount = new AtomicLong();
+
+    /**
+     * Количество пересозданных драйверов.
+     */
+    private final AtomicLong recycledCount = new AtomicLong();
+
+    /**
+     * Суммарное время ожидания аренды в наносекундах.
+     */
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+
+    /**
+     * Максимальное время ожидания аренды в наносекундах.
+     */
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+    /**
+     * Конструктор пула драйверов.
+     *
+     * @param factory фабрика новых экземпляров WebDriver
+     * @param size максимальное количество драйверов
+     * @param maxAgeMillis максимальный возраст драйвера в миллисекундах
+     * @param maxUses максимальное количество аренд одного драйвера
+     */
+    public WebDriverPool(Supplier<WebDriver> factory, int size, long maxAgeMillis, int maxUses) {
+        this.factory = factory;
+        this.size = Math.max(1, size);
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * Параллельно запускает недостающие драйверы, чтобы пул был заполнен до начала тестов.
+     */
+    public void prewarm() {
+        List<Thread> starters = new ArrayList<>();
+        while (reserveSlot()) {
+            Thread starter = new Thread(() -> {
+                try {
+                    idle.offer(create());
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    LOGGER.warn("Не удалось заранее запустить WebDriver", e);
+                }
+            }, "webdriver-pool-prewarm");
+            starter.start();
+            starters.add(starter);
+        }
+        for (Thread starter : starters) {
+            try {
+                starter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выдает драйвер в аренду. Если свободных драйверов нет и пул заполнен, ожидает возврата драйвера.
+     *
+     * @return исправный экземпляр WebDriver
+     */
+    public WebDriver lease() {
+        long start = System.nanoTime();
+        PooledDriver pooled = idle.poll();
+        while (pooled == null || !isUsable(pooled)) {
+            if (pooled != null) {
+                destroy(pooled);
+            }
+            if (reserveSlot()) {
+                try {
+                    pooled = create();
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                try {
+                    pooled = idle.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Ожидание WebDriver из пула прервано", e);
+                }
+            }
+        }
+        long waited = System.nanoTime() - start;
+        leaseWaitNanos.addAndGet(waited);
+        maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+        leaseCount.incrementAndGet();
+        if (pooled.uses++ > 0) {
+            reuseCount.incrementAndGet();
+        }
+        leased.put(pooled.driver, pooled);
+        return pooled.driver;
+    }
+
+    /**
+     * Возвращает драйвер в пул. Перед возвратом очищает состояние браузера;
+     * драйвер, который не удалось очистить, закрывается.
+     *
+     * @param driver экземпляр WebDriver, полученный через lease()
+     */
+    public void release(WebDriver driver) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            LOGGER.warn("Возвращаемый WebDriver не принадлежит пулу, закрываем его");
+            driver.quit();
+            return;
+        }
+        if (reset(driver) && isUsable(pooled)) {
+            idle.offer(pooled);
+        } else {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Закрывает все свободные и выданные драйверы.
+     */
+    public void shutdown() {
+        List<PooledDriver> all = new ArrayList<>(leased.values());
+        idle.drainTo(all);
+        leased.clear();
+        for (PooledDriver pooled : all) {
+            try {
+                pooled.driver.quit();
+            } catch (WebDriverException e) {
+                LOGGER.warn("Не удалось закрыть WebDriver", e);
+            }
+        }
+        created.set(0);
+    }
+
+    /**
+     * Возвращает метрики пула: количество аренд и переиспользований, время ожидания аренды.
+     *
+     * @return метрики пула
+     */
+    public Map<String, Object> getStatistics() {
+        long leases = leaseCount.get();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", size);
+        statistics.put("leases", leases);
+        statistics.put("reuses", reuseCount.get());
+        statistics.put("recycled", recycledCount.get());
+        statistics.put("averageLeaseWaitMillis",
+                leases == 0 ? 0.0 : TimeUnit.NANOSECONDS.toMicros(leaseWaitNanos.get()) / 1000.0 / leases);
+        statistics.put("maxLeaseWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()));
+        return statistics;
+    }
+
+    /**
+     * Выводит метрики пула в лог и записывает их в файл отчета webdriver-pool.json.
+     */
+    public void report() {
+        Map<String, Object> statistics = getStatistics();
+        LOGGER.info("Пул WebDriver: {}", statistics);
+        Reports.writeJson("webdriver-pool.json", statistics);
+    }
+
+    /**
+     * Резервирует место под новый драйвер, если пул еще не заполнен.
+     *
+     * @return true, если место зарезервировано
+     */
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = created.get();
+            if (current >= size) {
+                return false;
+            }
+        } while (!created.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Создает новый драйвер пула.
+     *
+     * @return новый драйвер пула
+     */
+    private PooledDriver create() {
+        return new PooledDriver(factory.get());
+    }
+
+    /**
+     * Закрывает драйвер и освобождает его место в пуле.
+     *
+     * @param pooled драйвер пула
+     */
+    private void destroy(PooledDriver pooled) {
+        recycledCount.incrementAndGet();
+        created.decrementAndGet();
+        try {
+            pooled.driver.quit();
+        } catch (WebDriverException e) {
+            LOGGER.warn("Не удалось закрыть WebDriver", e);
+        }
+    }
+
+    /**
+     * Проверяет, что драйвер не превысил ограничения по возрасту и числу использований и отвечает на команды.
+     *
+     * @param pooled драйвер пула
+     * @return true, если драйвер можно выдавать в аренду
+     */
+    private boolean isUsable(PooledDriver pooled) {
+        if (System.currentTimeMillis() - pooled.createdAt > maxAgeMillis || pooled.uses >= maxUses) {
+            return false;
+        }
+        try {
+            return !pooled.driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            LOGGER.warn("WebDriver из пула не отвечает", e);
+            return false;
+        }
+    }
+
+    /**
+     * Очищает состояние браузера: закрывает лишние вкладки, удаляет cookies и local/session storage.
+     *
+     * @param driver экземпляр WebDriver
+     * @return true, если состояние очищено
+     */
+    private static boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            Collections.reverse(handles);
+            for (String handle : handles.subList(0, handles.size() - 1)) {
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(handles.get(handles.size() - 1));
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            if (driver instanceof HasCdp) {
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            LOGGER.warn("Не удалось очистить состояние WebDriver", e);
+            return false;
+        }
+    }
+
+    /**
+     * Драйвер пула с данными о возрасте и количестве использований.
+     */
+    private static final class PooledDriver {
+
+        /**
+         * Экземпляр WebDriver.
+         */
+        private final WebDriver driver;
+
+        /**
+         * Время создания драйвера в миллисекундах.
+         */
+        private final long createdAt = System.currentTimeMillis();
+
+        /**
+         * Количество аренд драйвера.
+         */
+        private int uses;
+
+        /**
+         * Конструктор драйвера пула.
+         *
+         * @param driver экземпляр WebDriver
+         */
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.bellintegrator.benchmarks;
+
+import com.bellintegrator.locators.CitilinkLocators;
+import com.bellintegrator.locators.Locator;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.Reports;
+import com.bellintegrator.webdriver.WebDriverInitialization;
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+import static com.codeborne.selenide.Selenide.open;
+
+/**
+ * Класс LocatorBenchmarkTest замеряет время поиска элементов по каждому локатору реестра
+ * на сохраненной копии страницы, чтобы медленные локаторы были видны до того, как замедлят тесты.
+ * Для каждого локатора замеряется и прежний способ поиска того же элемента в page object (XPath-выражения
+ * и перебор span/button с проверкой текста), чтобы сравнить реестр с исходными локаторами.
+ * Запускается профилем benchmark: mvn test -Pbenchmark.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@Tag("benchmark")
+public class LocatorBenchmarkTest extends WebDriverInitialization {
+
+    /**
+     * Количество прогревочных поисков для каждого локатора.
+     */
+    private static final int WARMUP_ITERATIONS = 5;
+
+    /**
+     * Количество замеряемых поисков для каждого локатора.
+     */
+    private static final int MEASURED_ITERATIONS = 30;
+
+    /**
+     * Прежние способы поиска элементов page object по имени локатора реестра с примерами параметров реестра.
+     */
+    private static final Map<String, Baseline> BASELINES = baselines();
+
+    /**
+     * Пропускает замер, если сохраненная копия страницы не найдена.
+     */
+    @BeforeAll
+    public static void checkSnapshot() {
+        Assumptions.assumeTrue(Files.exists(snapshotPath()),
+                "Нет сохраненной копии страницы " + snapshotPath());
+    }
+
+    /**
+     * Замеряет время поиска элементов по всем локаторам реестра CitilinkLocators и прежним способам поиска.
+     */
+    @Feature("Производительность локаторов")
+    @DisplayName("Замер времени поиска по локаторам")
+    @Test
+    public void benchmarkLocators() {
+        open(snapshotPath().toUri().toString());
+        WebDriver driver = WebDriverRunner.getWebDriver();
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        StringBuilder table = new StringBuilder();
+        for (Locator locator : CitilinkLocators.all()) {
+            By by = locator.by(locator.getSampleArguments());
+            Timing current = measure(() -> driver.findElements(by).size());
+            Baseline baseline = BASELINES.get(locator.getName());
+            Timing previous = baseline == null ? null : measure(() -> baseline.search.applyAsInt(driver));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("name", locator.getName());
+            result.put("type", locator.getType().toString());
+            result.put("expression", locator.expression(locator.getSampleArguments()));
+            result.put("found", current.found);
+            result.put("medianMillis", current.medianMillis);
+            result.put("maxMillis", current.maxMillis);
+            table.append(String.format("%-24s %-6s найдено %4d, медиана %8.3f мс, максимум %8.3f мс%n",
+                    locator.getName(), locator.getType(), current.found, current.medianMillis, current.maxMillis));
+            if (previous != null) {
+                result.put("baselineExpression", baseline.description);
+                result.put("baselineFound", previous.found);
+                result.put("baselineMedianMillis", previous.medianMillis);
+                result.put("baselineMaxMillis", previous.maxMillis);
+                result.put("speedup", current.medianMillis > 0 ? previous.medianMillis / current.medianMillis : 0.0);
+                table.append(String.format("%-24s %-6s найдено %4d, медиана %8.3f мс, максимум %8.3f мс%n",
+                        "  прежний", "", previous.found, previous.medianMillis, previous.maxMillis));
+            }
+            results.add(result);
+        }
+        Reports.writeJson("locators.json", results);
+        Allure.addAttachment("Время поиска по локаторам", "text/plain", table.toString(), ".txt");
+    }
+
+    /**
+     * Выполняет прогревочные и замеряемые поиски.
+     *
+     * @param search поиск, возвращающий количество найденных элементов
+     * @return количество найденных элементов, медиана и максимум времени поиска
+     */
+    private static Timing measure(IntSupplier search) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            search.getAsInt();
+        }
+        long[] samples = new long[MEASURED_ITERATIONS];
+        int found = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            found = search.getAsInt();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return new Timing(found, samples[MEASURED_ITERATIONS / 2] / 1_000_000.0,
+                samples[MEASURED_ITERATIONS - 1] / 1_000_000.0);
+    }
+
+    /**
+     * Описывает прежние способы поиска из page object до появления реестра локаторов.
+     *
+     * @return прежние способы поиска по имени локатора реестра
+     */
+    private static Map<String, Baseline> baselines() {
+        Map<String, Baseline> baselines = new LinkedHashMap<>();
+        baselines.put("spanWithText", new Baseline("$$(\"span\").findBy(exactText(\"Каталог товаров\"))",
+                driver -> firstWithText(driver.findElements(By.tagName("span")), "Каталог товаров").size()));
+        baselines.put("catalogMenuSection", new Baseline("$$(\"span\").findBy(exactText(\"Смартфоны и планшеты\"))"
+                + ".$x(\".//ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__menu']\")",
+                driver -> firstWithText(driver.findElements(By.tagName("span")), "Смартфоны и планшеты").stream()
+                        .mapToInt(span -> span.findElements(By.xpath(
+                                ".//ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__menu']")).size())
+                        .sum()));
+        baselines.put("catalogInnerMenuItem", xpath("//span[text()='Смартфоны']"
+                + "[ancestor::div[@data-meta-name='CatalogMenuDesktopLayout__body']]"));
+        baselines.put("filterBlock", xpath("//div[@data-meta-value='Бренд']"));
+        baselines.put("filterBlockButton", new Baseline("$x(\"//div[@data-meta-value='Бренд']\")"
+                + ".$x(\".//button[text()='Показать все']\")",
+                driver -> driver.findElements(By.xpath("//div[@data-meta-value='Бренд']")).stream().limit(1)
+                        .mapToInt(block -> block.findElements(By.xpath(".//button[text()='Показать все']")).size())
+                        .sum()));
+        String items = ".//span[contains(text(),'')][preceding-sibling::span[input[@type='checkbox']]]"
+                + "//span[contains(text(),'')]";
+        baselines.put("filterBlockItems", new Baseline("$x(\"//div[@data-meta-value='Бренд']\").$$x(\"" + items + "\")",
+                driver -> driver.findElements(By.xpath("//div[@data-meta-value='Бренд']")).stream().limit(1)
+                        .mapToInt(block -> block.findElements(By.xpath(items)).size())
+                        .sum()));
+        baselines.put("productTitles", xpath("//div[@data-meta-name='ProductVerticalSnippet']"
+                + "//a[@data-meta-name='Snippet__title']"));
+        baselines.put("resultsBlock", xpath("//div[contains(@class, '')]"
+                + "[descendant::section[@data-meta-name='ProductListLayout__banners']]"
+                + "[ancestor::div[@data-meta-name='ProductListLayout']]"));
+        baselines.put("buttonWithText", new Baseline("$$(\"button\").findBy(exactText(\"Показать ещё\"))",
+                driver -> firstWithText(driver.findElements(By.tagName("button")), "Показать ещё").size()));
+        return baselines;
+    }
+
+    /**
+     * Создает прежний способ поиска одним XPath-выражением.
+     *
+     * @param expression выражение XPath
+     * @return способ поиска
+     */
+    private static Baseline xpath(String expression) {
+        return new Baseline(expression, driver -> driver.findElements(By.xpath(expression)).size());
+    }
+
+    /**
+     * Выбирает первый элемент с заданным текстом так же, как findBy(exactText): текст каждого элемента
+     * запрашивается у браузера по очереди и сравнивается без учета регистра и пробелов по краям.
+     *
+     * @param elements элементы
+     * @param text текст
+     * @return список из первого подходящего элемента или пустой список
+     */
+    private static List<WebElement> firstWithText(List<WebElement> elements, String text) {
+        for (WebElement element : elements) {
+            if (element.getText().trim().equalsIgnoreCase(text)) {
+                return Collections.singletonList(element);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Возвращает путь к сохраненной копии страницы.
+     *
+     * @return путь к файлу копии страницы
+     */
+    private static Path snapshotPath() {
+        return Paths.get(Properties.testsProperties.locatorsSnapshotPath()).toAbsolutePath();
+    }
+
+    /**
+     * Прежний способ поиска элемента.
+     */
+    private static final class Baseline {
+
+        /**
+         * Запись поиска в том виде, в котором он был в page object.
+         */
+        private final String description;
+
+        /**
+         * Поиск, возвращающий количество найденных элементов.
+         */
+        private final ToIntFunction<WebDriver> search;
+
+        /**
+         * Конструктор способа поиска.
+         *
+         * @param description запись поиска
+         * @param search поиск, возвращающий количество найденных элементов
+         */
+        private Baseline(String description, ToIntFunction<WebDriver> search) {
+            this.description = description;
+            this.search = search;
+        }
+    }
+
+    /**
+     * Результат замера поиска.
+     */
+    private static final class Timing {
+
+        /**
+         * Количество найденных элементов.
+         */
+        private final int found;
+
+        /**
+         * Медиана времени поиска в миллисекундах.
+         */
+        private final double medianMillis;
+
+        /**
+         * Максимальное время поиска в миллисекундах.
+         */
+        private final double maxMillis;
+
+        /**
+         * Конструктор результата замера.
+         *
+         * @param found количество найденных элементов
+         * @param medianMillis медиана времени поиска
+         * @param maxMillis максимальное время поиска
+         */
+        private Timing(int found, double medianMillis, double maxMillis) {
+            this.found = found;
+            this.medianMillis = medianMillis;
+            this.maxMillis = maxMillis;
+        }
+    }
+}
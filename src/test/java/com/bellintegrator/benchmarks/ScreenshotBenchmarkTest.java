@@ -0,0 +1,126 @@
+package com.bellintegrator.benchmarks;
+
+import com.bellintegrator.locators.CitilinkLocators;
+import com.bellintegrator.locators.Locator;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.service.Reports;
+import com.bellintegrator.service.ScreenshotFormat;
+import com.bellintegrator.service.ScreenshotScope;
+import com.bellintegrator.service.ScreenshotStrategy;
+import com.bellintegrator.webdriver.ElementTracker;
+import com.bellintegrator.webdriver.WebDriverInitialization;
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static com.codeborne.selenide.Selenide.open;
+
+/**
+ * Класс ScreenshotBenchmarkTest сравнивает стратегии скриншотов на сохраненной копии страницы:
+ * окно и элемент, каждая максимальная ширина из screenshots.benchmark.max.widths, PNG и JPEG с качеством
+ * screenshots.jpeg.quality. Для каждой стратегии записываются объем и время снятия и перекодирования,
+ * по которым выбираются свойства screenshots для CI. Запускается профилем benchmark: mvn test -Pbenchmark.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@Tag("benchmark")
+public class ScreenshotBenchmarkTest extends WebDriverInitialization {
+
+    /**
+     * Количество прогревочных скриншотов для каждой стратегии.
+     */
+    private static final int WARMUP_ITERATIONS = 2;
+
+    /**
+     * Количество замеряемых скриншотов для каждой стратегии.
+     */
+    private static final int MEASURED_ITERATIONS = 10;
+
+    /**
+     * Пропускает замер, если сохраненная копия страницы не найдена.
+     */
+    @BeforeAll
+    public static void checkSnapshot() {
+        Assumptions.assumeTrue(Files.exists(snapshotPath()),
+                "Нет сохраненной копии страницы " + snapshotPath());
+    }
+
+    /**
+     * Замеряет объем и время скриншотов для всех сочетаний области, ширины и формата.
+     */
+    @Feature("Производительность скриншотов")
+    @DisplayName("Замер стратегий скриншотов")
+    @Test
+    public void benchmarkScreenshots() {
+        open(snapshotPath().toUri().toString());
+        WebDriver driver = ElementTracker.decorate(WebDriverRunner.getWebDriver());
+        By target = targetElement(driver);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        StringBuilder table = new StringBuilder();
+        for (ScreenshotScope scope : ScreenshotScope.values()) {
+            for (int maxWidth : Properties.testsProperties.screenshotsBenchmarkMaxWidths()) {
+                for (ScreenshotFormat format : ScreenshotFormat.values()) {
+                    ScreenshotStrategy strategy = new ScreenshotStrategy(scope, format, maxWidth,
+                            Properties.testsProperties.screenshotsJpegQuality());
+                    ScreenshotStrategy warmup = new ScreenshotStrategy(scope, format, maxWidth,
+                            Properties.testsProperties.screenshotsJpegQuality());
+                    for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+                        ElementTracker.reset(driver);
+                        driver.findElement(target);
+                        ScreenshotStrategy measured = i < WARMUP_ITERATIONS ? warmup : strategy;
+                        measured.capture(driver).ifPresent(measured::encode);
+                    }
+                    Map<String, Object> statistics = strategy.getStatistics();
+                    results.add(statistics);
+                    table.append(String.format("%-28s %8d байт, снятие %8.1f мс, перекодирование %8.1f мс%n",
+                            strategy.getName(), (Long) statistics.get("averageBytes"),
+                            (Double) statistics.get("captureP50Millis"), (Double) statistics.get("encodeP50Millis")));
+                }
+            }
+        }
+        Reports.writeJson("screenshot-strategies.json", results);
+        Allure.addAttachment("Стратегии скриншотов", "text/plain", table.toString(), ".txt");
+    }
+
+    /**
+     * Выбирает элемент для скриншотов области ELEMENT: первый локатор реестра, находящий видимый элемент.
+     *
+     * @param driver экземпляр WebDriver
+     * @return локатор элемента или тег body, если ни один локатор ничего не нашел
+     */
+    private static By targetElement(WebDriver driver) {
+        for (Locator locator : CitilinkLocators.all()) {
+            By by = locator.by(locator.getSampleArguments());
+            List<WebElement> elements = driver.findElements(by);
+            if (!elements.isEmpty() && elements.get(0).isDisplayed()) {
+                return by;
+            }
+        }
+        return By.tagName("body");
+    }
+
+    /**
+     * Возвращает путь к сохраненной копии страницы.
+     *
+     * @return путь к файлу копии страницы
+     */
+    private static Path snapshotPath() {
+        return Paths.get(Properties.testsProperties.locatorsSnapshotPath()).toAbsolutePath();
+    }
+}
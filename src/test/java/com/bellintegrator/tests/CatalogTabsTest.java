@@ -0,0 +1,58 @@
+package com.bellintegrator.tests;
+
+import com.bellintegrator.data.DataProvider;
+import com.bellintegrator.pages.PageFactory;
+import com.bellintegrator.pages.citilink.CatalogFilter;
+import com.bellintegrator.pages.citilink.CitilinkCatalogPage;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.webdriver.TabFanOut;
+import com.bellintegrator.webdriver.WebDriverInitialization;
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.WebDriverRunner;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.Arguments;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Класс CatalogTabsTest проверяет каталог Citilink с фильтром по бренду для многих разделов и брендов
+ * в одном браузере: страницы загружаются одновременно во вкладках, проверки выполняются по очереди.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class CatalogTabsTest extends WebDriverInitialization {
+
+    /**
+     * Тест проверяет, что на первой странице каталога с фильтром по бренду все продукты содержат ожидаемый текст.
+     */
+    @Feature("Проверка сайта sitilink")
+    @DisplayName("Проверка каталога sitilink с фильтром по бренду во вкладках")
+    @Test
+    public void testCatalogBrandsInTabs() {
+        List<Object[]> cases = DataProvider.dataForCatalogBrands().map(Arguments::get).collect(Collectors.toList());
+        String baseUrl = Properties.testsProperties.citilinkUrl();
+
+        List<TabFanOut.TabResult<Object[]>> results = new TabFanOut<Object[]>(WebDriverRunner.getWebDriver(),
+                Properties.testsProperties.tabsFanOutSize(), Duration.ofMillis(Configuration.pageLoadTimeout))
+                .run(cases,
+                        values -> CatalogFilter.category((String) values[0]).brand((String) values[1]).build()
+                                .toUrl(baseUrl),
+                        values -> PageFactory.create(CitilinkCatalogPage.class).shouldHaveProductName((String) values[2]));
+
+        String report = results.stream()
+                .map(result -> Arrays.toString(result.getItem()) + ": " + result.getDurationMillis() + " мс"
+                        + (result.isPassed() ? "" : ", " + result.getError()))
+                .collect(Collectors.joining("\n"));
+        Allure.addAttachment("Проверки во вкладках", "text/plain", report, ".txt");
+        Assertions.assertTrue(results.stream().allMatch(TabFanOut.TabResult::isPassed),
+                "Не пройдены проверки во вкладках:\n" + report);
+    }
+}
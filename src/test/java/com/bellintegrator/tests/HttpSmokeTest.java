@@ -0,0 +1,69 @@
+package com.bellintegrator.tests;
+
+import com.bellintegrator.data.DataProvider;
+import com.bellintegrator.network.NetworkStand;
+import com.bellintegrator.properties.Properties;
+import com.bellintegrator.smoke.HttpSmokeRunner;
+import com.bellintegrator.smoke.SmokeCheck;
+import com.bellintegrator.smoke.SmokeResult;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.json.Json;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Класс HttpSmokeTest проверяет страницы каталога Citilink без браузера: HTML загружается параллельно
+ * через HttpClient, названия продуктов ищутся в разметке, отрисованной сервером.
+ * В режиме network.mode=REPLAY страницы отдает локальный сервер сетевого архива.
+ * Запускается профилем smoke: mvn test -Psmoke.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+@Tag("smoke")
+public class HttpSmokeTest {
+
+    /**
+     * Запускает сервер сетевого архива, если он нужен в текущем режиме.
+     */
+    @BeforeAll
+    public static void startNetworkStand() {
+        NetworkStand.start();
+    }
+
+    /**
+     * Проверяет, что на каждой странице каталога есть продукты с искомым названием.
+     */
+    @Feature("Проверка сайта sitilink без браузера")
+    @DisplayName("Проверка страниц каталога без браузера")
+    @Test
+    public void checkCatalogPagesWithoutBrowser() {
+        List<SmokeCheck> checks = DataProvider.dataForHttpSmoke().collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        List<SmokeResult> results;
+        try (HttpSmokeRunner runner = new HttpSmokeRunner(Properties.testsProperties.smokeMaxConcurrency(),
+                Duration.ofMillis(Properties.testsProperties.smokeRequestTimeoutMillis()))) {
+            results = runner.run(checks);
+        }
+        Map<String, Object> summary = HttpSmokeRunner.report(results,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        Allure.addAttachment("Проверки без браузера", "application/json", new Json().toJson(summary), ".json");
+
+        String failures = results.stream()
+                .filter(result -> !result.isPassed())
+                .map(result -> result.getCheck().getUrl() + ": " + result.getError())
+                .collect(Collectors.joining(System.lineSeparator()));
+        Assertions.assertTrue(failures.isEmpty(), "Упавшие проверки:" + System.lineSeparator() + failures);
+    }
+}
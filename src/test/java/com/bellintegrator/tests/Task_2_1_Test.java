@@ -1,6 +1,7 @@
 package com.bellintegrator.tests;
 
 import com.bellintegrator.pages.BasePage;
+import com.bellintegrator.pages.citilink.CatalogFilter;
 import com.bellintegrator.pages.citilink.CitilinkCatalogPage;
 import com.bellintegrator.pages.citilink.CitilinkStartPage;
 import com.bellintegrator.webdriver.WebDriverInitialization;
@@ -8,6 +9,7 @@ import io.qameta.allure.Feature;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import java.util.List;
 
 /**
  * Класс Task_2_1_Test содержит тесты для проверки функционала сайта Citilink.
@@ -55,4 +57,122 @@ public class Task_2_1_Test extends WebDriverInitialization {
                 .chooseElementInFilterBlock(filterBlock, element)
                 .shouldHaveProductNameOnAllAvailablePages(showMoreButton, productName);
     }
+
+    /**
+     * Тест проверяет фильтр каталога смартфонов, начиная со страницы каталога: переход к ней через меню
+     * выполняется только при отсутствии сохраненной сессии, иначе сессия восстанавливается.
+     *
+     * @param url                    URL стартовой страницы
+     * @param buttonName             имя кнопки для первоначального клика
+     * @param menuName               имя пункта меню, на который необходимо навести курсор
+     * @param innerMenuName          имя подменю, на которое необходимо кликнуть
+     * @param checkURL               ожидаемый фрагмент URL для проверки
+     * @param filterBlock            блок фильтров, в котором находится кнопка "Показать все"
+     * @param buttonNameInFilterBlock имя кнопки "Показать все" в блоке фильтров
+     * @param element                элемент в блоке фильтров, который необходимо выбрать
+     * @param productName            имя продукта, которое должно быть найдено на странице результатов
+     * @param showMoreButton         текст кнопки "Показать еще" в блоке результатов
+     */
+    @Feature("Проверка сайта sitilink")
+    @DisplayName("Проверка фильтра каталога sitilink с сохраненной сессией")
+    @ParameterizedTest(name = "{displayName} {arguments}")
+    @MethodSource("com.bellintegrator.data.DataProvider#dataForTestFive")
+    public void testFilteringSmartPhonesFromSavedSession(String url,
+                                                         String buttonName,
+                                                         String menuName,
+                                                         String innerMenuName,
+                                                         String checkURL,
+                                                         String filterBlock,
+                                                         String buttonNameInFilterBlock,
+                                                         String element,
+                                                         String productName,
+                                                         String showMoreButton) {
+
+        BasePage.openWithSession(innerMenuName, url, CitilinkCatalogPage.class,
+                        () -> BasePage.open(url, CitilinkStartPage.class)
+                                .clickButton(buttonName)
+                                .moveToMenu(menuName)
+                                .clickToInnerMenu(innerMenuName, CitilinkCatalogPage.class))
+                .shouldHaveUrlFragment(checkURL)
+                .clickButtonInFilterBlock(filterBlock, buttonNameInFilterBlock)
+                .chooseElementInFilterBlock(filterBlock, element)
+                .shouldHaveProductNameOnAllAvailablePages(showMoreButton, productName);
+    }
+
+    /**
+     * Тест проверяет поиск смартфонов в каталоге, открытом сразу с фильтром по бренду.
+     *
+     * @param url                    URL сайта
+     * @param buttonName             имя кнопки для первоначального клика
+     * @param menuName               имя пункта меню, на который необходимо навести курсор
+     * @param innerMenuName          имя подменю, на которое необходимо кликнуть
+     * @param checkURL               путь раздела каталога
+     * @param filterBlock            блок фильтров, в котором находится кнопка "Показать все"
+     * @param buttonNameInFilterBlock имя кнопки "Показать все" в блоке фильтров
+     * @param element                бренд, по которому фильтруется каталог
+     * @param productName            имя продукта, которое должно быть найдено на странице результатов
+     * @param showMoreButton         текст кнопки "Показать еще" в блоке результатов
+     */
+    @Feature("Проверка сайта sitilink")
+    @DisplayName("Проверка каталога sitilink, открытого по адресу с фильтром")
+    @ParameterizedTest(name = "{displayName} {arguments}")
+    @MethodSource("com.bellintegrator.data.DataProvider#dataForTestFive")
+    public void testSearchingSmartPhonesByFilterUrl(String url,
+                                                    String buttonName,
+                                                    String menuName,
+                                                    String innerMenuName,
+                                                    String checkURL,
+                                                    String filterBlock,
+                                                    String buttonNameInFilterBlock,
+                                                    String element,
+                                                    String productName,
+                                                    String showMoreButton) {
+
+        CitilinkCatalogPage.openFiltered(url, CatalogFilter.category(checkURL).brand(element).build())
+                .shouldHaveProductNameOnAllAvailablePages(showMoreButton, productName);
+    }
+
+    /**
+     * Тест проверяет, что каталог, отфильтрованный через блок фильтров, и каталог, открытый по адресу
+     * с тем же фильтром, выводят одни и те же продукты.
+     *
+     * @param url                    URL сайта
+     * @param buttonName             имя кнопки для первоначального клика
+     * @param menuName               имя пункта меню, на который необходимо навести курсор
+     * @param innerMenuName          имя подменю, на которое необходимо кликнуть
+     * @param checkURL               путь раздела каталога
+     * @param filterBlock            блок фильтров, в котором находится кнопка "Показать все"
+     * @param buttonNameInFilterBlock имя кнопки "Показать все" в блоке фильтров
+     * @param element                бренд, по которому фильтруется каталог
+     * @param productName            имя продукта, которое должно быть найдено на странице результатов
+     * @param showMoreButton         текст кнопки "Показать еще" в блоке результатов
+     */
+    @Feature("Проверка сайта sitilink")
+    @DisplayName("Проверка совпадения фильтра каталога sitilink через интерфейс и по адресу")
+    @ParameterizedTest(name = "{displayName} {arguments}")
+    @MethodSource("com.bellintegrator.data.DataProvider#dataForTestFive")
+    public void testFilterUrlMatchesFilterBlock(String url,
+                                                String buttonName,
+                                                String menuName,
+                                                String innerMenuName,
+                                                String checkURL,
+                                                String filterBlock,
+                                                String buttonNameInFilterBlock,
+                                                String element,
+                                                String productName,
+                                                String showMoreButton) {
+
+        List<String> productTitles = BasePage.openWithSession(innerMenuName, url, CitilinkCatalogPage.class,
+                        () -> BasePage.open(url, CitilinkStartPage.class)
+                                .clickButton(buttonName)
+                                .moveToMenu(menuName)
+                                .clickToInnerMenu(innerMenuName, CitilinkCatalogPage.class))
+                .shouldHaveUrlFragment(checkURL)
+                .clickButtonInFilterBlock(filterBlock, buttonNameInFilterBlock)
+                .chooseElementInFilterBlock(filterBlock, element)
+                .getProductTitles();
+
+        CitilinkCatalogPage.openFiltered(url, CatalogFilter.category(checkURL).brand(element).build())
+                .shouldHaveProductTitles(productTitles);
+    }
 }
@@ -0,0 +1,58 @@
+package com.bellintegrator.webdriver;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+/**
+ * Класс AllureAttachmentsWatcher завершает обработку вложений Allure по результату теста:
+ * при падении сохраняет последние снимки страницы, в остальных случаях отбрасывает их.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class AllureAttachmentsWatcher implements TestWatcher {
+
+    /**
+     * Вызывается после успешного завершения теста.
+     *
+     * @param context контекст теста
+     */
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        finishTest(false);
+    }
+
+    /**
+     * Вызывается после прерывания теста.
+     *
+     * @param context контекст теста
+     * @param cause причина прерывания
+     */
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        finishTest(false);
+    }
+
+    /**
+     * Вызывается после падения теста.
+     *
+     * @param context контекст теста
+     * @param cause причина падения
+     */
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        finishTest(true);
+    }
+
+    /**
+     * Передает результат теста слушателю Selenide с Allure интеграцией.
+     *
+     * @param failed true, если тест упал
+     */
+    private static void finishTest(boolean failed) {
+        if (WebDriverInitialization.allureSelenide != null) {
+            WebDriverInitialization.allureSelenide.finishTest(failed);
+        }
+    }
+}
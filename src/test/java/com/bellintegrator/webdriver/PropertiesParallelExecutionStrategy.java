@@ -0,0 +1,54 @@
+package com.bellintegrator.webdriver;
+
+import com.bellintegrator.properties.Properties;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+/**
+ * Класс PropertiesParallelExecutionStrategy задает степень параллелизма JUnit из свойства tests.parallelism.
+ * Подключается в junit-platform.properties. При значении 1 тесты выполняются последовательно.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class PropertiesParallelExecutionStrategy implements ParallelExecutionConfigurationStrategy {
+
+    /**
+     * Создает конфигурацию параллельного выполнения со степенью параллелизма из TestsProperties.
+     *
+     * @param configurationParameters параметры конфигурации JUnit
+     * @return конфигурация параллельного выполнения
+     */
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = Math.max(1, Properties.testsProperties.parallelism());
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMinimumRunnable() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMaxPoolSize() {
+                return parallelism + 256;
+            }
+
+            @Override
+            public int getCorePoolSize() {
+                return parallelism;
+            }
+
+            @Override
+            public int getKeepAliveSeconds() {
+                return 30;
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.bellintegrator.webdriver;
+
+import com.bellintegrator.data.TestDurations;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import java.lang.reflect.Method;
+
+/**
+ * Класс TestDurationRecorder замеряет длительность каждого теста вместе с аргументами параметризованного теста
+ * и передает ее в историю TestDurations, по которой распределяются наборы аргументов между исполнителями.
+ *
+ * @version 1.0
+ * @since 2024-06-22
+ * @author Vergentev Tikhon
+ */
+public class TestDurationRecorder implements InvocationInterceptor {
+
+    /**
+     * Замеряет длительность обычного теста.
+     *
+     * @param invocation вызов теста
+     * @param invocationContext контекст вызова с аргументами
+     * @param extensionContext контекст теста
+     * @throws Throwable ошибка теста
+     */
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        record(invocation, invocationContext);
+    }
+
+    /**
+     * Замеряет длительность одного вызова параметризованного теста.
+     *
+     * @param invocation вызов теста
+     * @param invocationContext контекст вызова с аргументами
+     * @param extensionContext контекст теста
+     * @throws Throwable ошибка теста
+     */
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        record(invocation, invocationContext);
+    }
+
+    /**
+     * Выполняет тест и записывает его длительность, в том числе при падении.
+     *
+     * @param invocation вызов теста
+     * @param invocationContext контекст вызова с аргументами
+     * @throws Throwable ошибка теста
+     */
+    private static void record(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext)
+            throws Throwable {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        try {
+            invocation.proceed();
+        } finally {
+            Method method = invocationContext.getExecutable();
+            TestDurations.record(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    invocationContext.getArguments().toArray(), start, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+}
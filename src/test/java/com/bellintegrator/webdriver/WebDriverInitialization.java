@@ -1,13 +1,23 @@
 package com.bellintegrator.webdriver;
 
+import com.bellintegrator.data.TestDurations;
+import com.bellintegrator.metrics.SelenideTimingListener;
+import com.bellintegrator.metrics.StepTimings;
+import com.bellintegrator.network.NetworkStand;
+import com.bellintegrator.properties.Properties;
 import com.bellintegrator.service.CustomAllureSelenide;
+import com.bellintegrator.service.ScreenshotScope;
+import com.bellintegrator.waits.AdaptiveTimeouts;
 import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.WebDriverRunner;
 import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Allure;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import static com.codeborne.selenide.Selenide.closeWebDriver;
+import org.openqa.selenium.json.Json;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import static com.codeborne.selenide.WebDriverRunner.setWebDriver;
 
 /**
@@ -17,44 +27,136 @@ import static com.codeborne.selenide.WebDriverRunner.setWebDriver;
  * @since 2024-06-22
  * @author Vergentev Tikhon
  */
+@ExtendWith({AllureAttachmentsWatcher.class, TestDurationRecorder.class})
 public class WebDriverInitialization {
 
     /**
-     * Метод setup() выполняется перед всеми тестами и настраивает Selenide Logger с Allure интеграцией.
+     * Слушатель Selenide с Allure интеграцией, общий для всех тестовых классов.
+     */
+    static CustomAllureSelenide allureSelenide;
+
+    /**
+     * Пул заранее запущенных экземпляров WebDriver, общий для всех тестовых классов.
+     */
+    private static WebDriverPool driverPool;
+
+    /**
+     * Экземпляр WebDriver, полученный текущим тестом из пула.
+     */
+    private WebDriver driver;
+
+    /**
+     * Метод setup() выполняется перед всеми тестами и создает слушатель Selenide с Allure интеграцией.
      * Включает создание скриншотов и сохранение исходного кода страницы при ошибках.
+     * Также настраивает Selenide, подготавливает сетевой архив и заранее запускает экземпляры WebDriver в пуле.
+     * Синхронизирован, так как тестовые классы могут запускаться параллельно.
      */
     @BeforeAll
-    public static void setup(){
-        SelenideLogger.addListener("AllureSelenide",
-                new CustomAllureSelenide()
-                        .screenshots(true)
-                        .savePageSource(true)
-        );
+    public static synchronized void setup(){
+        Configuration.headless = Properties.testsProperties.browserHeadless();
+        Configuration.browser = "chrome";
+        NetworkStand.start();
+
+        if (allureSelenide == null) {
+            allureSelenide = new CustomAllureSelenide();
+            allureSelenide.screenshots(true).savePageSource(true);
+        }
+        if (driverPool == null) {
+            driverPool = new WebDriverPool(WebDriverInitialization::createDriver,
+                    Math.max(Properties.testsProperties.webDriverPoolSize(), Properties.testsProperties.parallelism()),
+                    TimeUnit.MINUTES.toMillis(Properties.testsProperties.webDriverPoolMaxAgeMinutes()),
+                    Properties.testsProperties.webDriverPoolMaxUses());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                driverPool.shutdown();
+                LaunchProfile.cleanUp();
+            }));
+        }
+        driverPool.prewarm();
+    }
+
+    /**
+     * Создает новый экземпляр браузера Chrome с параметрами запуска из свойств browser,
+     * для скриншотов области ELEMENT оборачивает его слушателем элементов событий
+     * и подключает к нему перехватчик трафика режима network.mode.
+     *
+     * @return новый экземпляр WebDriver
+     */
+    private static WebDriver createDriver() {
+        WebDriver driver = LaunchProfile.launch();
+        if (Properties.testsProperties.screenshotsScope() == ScreenshotScope.ELEMENT) {
+            driver = ElementTracker.decorate(driver);
+        }
+        NetworkStand.attach(driver);
+        return driver;
     }
 
     /**
      * Метод, выполняющийся перед каждым тестом.
-     * Настраивает Selenide для использования браузера Chrome и запускает его в максимизированном режиме.
+     * Регистрирует слушатели Selenide с Allure интеграцией и замером длительности команд в потоке выполнения теста:
+     * SelenideLogger хранит слушатели в ThreadLocal, и при параллельном запуске каждый поток регистрирует их сам.
+     * Берет экземпляр WebDriver из пула и привязывает его к потоку выполнения теста.
      */
     @BeforeEach
     public void options() {
-        Configuration.headless = false;
-        Configuration.browser = "chrome";
-
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
-
-        WebDriver driver = new ChromeDriver(options);
+        if (!SelenideLogger.hasListener("AllureSelenide")) {
+            SelenideLogger.addListener("AllureSelenide", allureSelenide);
+        }
+        if (!SelenideLogger.hasListener("StepTimings")) {
+            SelenideLogger.addListener("StepTimings", new SelenideTimingListener());
+        }
+        driver = driverPool.lease();
         setWebDriver(driver);
     }
 
     /**
      * Метод, выполняющийся после каждого теста.
-     * Закрывает текущий экземпляр WebDriver.
+     * Прикладывает к отчету длительности шагов и статистику заблокированных запросов, дочитывает логи браузера,
+     * отвязывает WebDriver от Selenide и возвращает его в пул, снимает слушатели Selenide с потока выполнения теста.
+     * Вложения Allure дописываются в AllureAttachmentsWatcher.
      */
     @AfterEach
     public void quit() {
-        closeWebDriver();
+        StepTimings.attachTestTimings();
+        allureSelenide.collectBrowserLogs();
+        unbindWebDriver();
+        if (driver != null) {
+            Map<String, Object> blocking = NetworkStand.takeBlockingStatistics(driver);
+            if (!blocking.isEmpty()) {
+                Allure.addAttachment("Заблокированные запросы", "application/json", new Json().toJson(blocking), ".json");
+            }
+            driverPool.release(driver);
+        }
+        SelenideLogger.removeListener("StepTimings");
+        SelenideLogger.removeListener("AllureSelenide");
+    }
+
+    /**
+     * Отвязывает WebDriver от потока выполнения теста, не закрывая браузер: он возвращается в пул.
+     * Публичного API для этого в Selenide нет (closeWebDriver закрывает браузер, setWebDriver(null) запрещен),
+     * поэтому используется устаревший resetWebDriver контейнера WebDriver.
+     */
+    @SuppressWarnings("deprecation")
+    private static void unbindWebDriver() {
+        WebDriverRunner.webdriverContainer.resetWebDriver();
+    }
+
+    /**
+     * Метод, выполняющийся после всех тестов класса.
+     * Выводит накопленную за прогон статистику вложений Allure, блокировки запросов, длительности шагов и тестов
+     * и метрики пула WebDriver и запуска браузеров, в режиме записи сохраняет сетевой архив, сохраняет историю
+     * длительности тестов и замеры времени ожиданий.
+     */
+    @AfterAll
+    public static synchronized void tearDown() {
+        NetworkStand.save();
+        allureSelenide.reportAttachments();
+        NetworkStand.reportBlocking();
+        StepTimings.report();
+        TestDurations.save();
+        TestDurations.report();
+        AdaptiveTimeouts.save();
+        driverPool.report();
+        LaunchProfile.report();
     }
 
 }